@@ -0,0 +1,136 @@
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Corey Walker
+ * GameOutput that never waits on the console or a file.
+ * Each game keeps its own buffer, and when it is flushed the whole turn is handed
+ * to a Writer, which writes it on a background thread.
+ * Many games can share one Writer, so there is one writing thread no matter how many tables there are.
+ * The Writer only holds so many turns, once it is that far behind flush waits for it,
+ * so a slow target slows the games down instead of filling the heap.
+ */
+public final class AsyncOutput implements GameOutput {
+    private final Writer writer;
+    private final StringBuilder buffer = new StringBuilder();
+
+    /**
+     * constructor for an AsyncOutput
+     * @param writer the background writer flushed turns are handed to
+     */
+    public AsyncOutput(Writer writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    public void println(Object line) {
+        GameOutput.appendLine(buffer, line);
+    }
+
+    /**
+     * hands everything held so far to the writer and empties the buffer, waiting while the writer is full.
+     * Once the writer has failed the text is thrown away, close reports the failure.
+     * If interrupted while waiting the text is thrown away and the thread's interrupt flag is kept set.
+     */
+    @Override
+    public void flush() {
+        if (buffer.length() == 0) { return; }
+        if (writer.failure == null) {
+            try {
+                writer.queue.put(buffer.toString());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        buffer.setLength(0);
+    }
+
+    /**
+     * Background thread that writes flushed turns to a target in the order they were flushed.
+     * If the target cannot be written to the thread stops writing and throws away every turn until it is closed,
+     * so no game is left waiting on it, and close throws the IOException.
+     */
+    public static final class Writer implements AutoCloseable {
+        private static final String DONE = new String("done");
+        private static final int DEFAULT_CAPACITY = 1024;
+
+        private final Appendable target;
+        private final BlockingQueue<String> queue;
+        private final Thread thread;
+        private volatile IOException failure;
+
+        /**
+         * constructor for a Writer that holds up to 1024 turns, starts its thread
+         * @param target where turns are written, flushed after each one if it is Flushable
+         */
+        public Writer(Appendable target) {
+            this(target, DEFAULT_CAPACITY);
+        }
+
+        /**
+         * constructor for a Writer, starts its thread
+         * @param target where turns are written, flushed after each one if it is Flushable
+         * @param capacity number of flushed turns it holds before flush waits
+         */
+        public Writer(Appendable target, int capacity) {
+            this.target = target;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.thread = new Thread(this::writeAll, "unus-output");
+            this.thread.setDaemon(true);
+            this.thread.start();
+        }
+
+        private void writeAll() {
+            try {
+                for (String text = queue.take(); text != DONE; text = queue.take()) {
+                    target.append(text);
+                    if (queue.isEmpty() && target instanceof Flushable flushable) {
+                        flushable.flush();
+                    }
+                }
+                if (target instanceof Flushable flushable) {
+                    flushable.flush();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException e) {
+                failure = e;
+                discardAll();
+            }
+        }
+
+        /**
+         * throws away every turn until close, games that were waiting on a full queue carry on
+         */
+        private void discardAll() {
+            try {
+                while (queue.take() != DONE) {
+                    // the target failed, nothing more is written
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * Writes everything that has been flushed so far and stops the thread.
+         * If interrupted while waiting it stops waiting and keeps the thread's interrupt flag set.
+         * @throws UncheckedIOException if the target could not be written to
+         */
+        @Override
+        public void close() {
+            try {
+                queue.put(DONE);
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (failure != null) {
+                throw new UncheckedIOException(failure);
+            }
+        }
+    }
+}
@@ -0,0 +1,374 @@
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.LongUnaryOperator;
+
+import com.sun.management.ThreadMXBean;
+
+/**
+ * Corey Walker
+ * Micro benchmarks for the hot paths of the game, with no libraries needed.
+ * Every benchmark is a loop that runs an operation a given number of times and returns
+ * a checksum, so the JIT cannot throw the work away. Each one is warmed up and then measured
+ * over several rounds, and one line of JSON is printed per benchmark with
+ * - ns/op and ops/sec
+ * - bytes allocated per op, read from the thread's allocation counter
+ * so results can be saved and compared from commit to commit.
+ * It is a quick check that runs with nothing but the JDK, the JMH benchmarks in benchmarks/
+ * measure the same hot paths with forks, blackholes and error bars and are the numbers to keep.
+ * Usage: java Benchmarks [name filter] [warmup rounds] [measured rounds] [ms per round]
+ */
+public final class Benchmarks {
+    private final Map<String, LongUnaryOperator> benchmarks = new LinkedHashMap<>();
+
+    /**
+     * constructor that registers every benchmark
+     */
+    public Benchmarks() {
+        add("deck.drawCard", Benchmarks::drawCard);
+        add("deck.drawCardLazy", Benchmarks::drawCardLazy);
+        add("deck.shuffleDeck", Benchmarks::shuffleDeck);
+        add("hand.noMatches", Benchmarks::noMatches);
+        add("hand.playCard", Benchmarks::playCard);
+        add("hand.toString", Benchmarks::handToString);
+        add("iterator.nextStackedSkips", Benchmarks::nextWithStackedSkips);
+        add("iterator.next500Seats", Benchmarks::nextAtBigTable);
+        add("moves.generate", Benchmarks::generateMoves);
+        add("card.matchAllFaces", Benchmarks::matchAllFaces);
+        add("game.snapshotRestore", Benchmarks::snapshotRestore);
+        add("game.greedyBots", Benchmarks::greedyGames);
+        add("fastGame.greedy", Benchmarks::fastGames);
+        add("game.greedyBots10Seats", ops -> bigTableGames(10, ops));
+        add("game.greedyBots100Seats", ops -> bigTableGames(100, ops));
+        add("game.greedyBots1000Seats", ops -> bigTableGames(1000, ops));
+    }
+
+    /**
+     * registers a benchmark
+     * @param name name printed in the results
+     * @param loop runs the operation n times and returns a checksum
+     */
+    public void add(String name, LongUnaryOperator loop) {
+        benchmarks.put(name, loop);
+    }
+
+    /**
+     * Runs every benchmark whose name contains filter and prints its results
+     * @param filter part of a name, "" runs everything
+     * @param warmups rounds run before measuring
+     * @param rounds rounds measured
+     * @param roundMillis roughly how long each round runs for
+     */
+    public void run(String filter, int warmups, int rounds, long roundMillis) {
+        for (Map.Entry<String, LongUnaryOperator> benchmark : benchmarks.entrySet()) {
+            if (benchmark.getKey().contains(filter)) {
+                System.out.println(measure(benchmark.getKey(), benchmark.getValue(), warmups, rounds, roundMillis));
+            }
+        }
+    }
+
+    private static String measure(String name, LongUnaryOperator loop, int warmups, int rounds, long roundMillis) {
+        // find how many ops fit in a round, twice, since the first pass also loads classes and warms up the JIT
+        long ops = 1;
+        long checksum = 0;
+        for (int pass = 0; pass < 2; pass++) {
+            ops = 1;
+            while (true) {
+                long start = System.nanoTime();
+                checksum += loop.applyAsLong(ops);
+                if (System.nanoTime() - start > roundMillis * 1_000_000 / 4) { break; }
+                ops *= 2;
+            }
+        }
+        ops *= 4;
+        for (int i = 0; i < warmups; i++) {
+            checksum += loop.applyAsLong(ops);
+        }
+
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        List<Double> nsPerOp = new ArrayList<>();
+        long totalOps = 0;
+        long allocated = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < rounds; i++) {
+            long start = System.nanoTime();
+            checksum += loop.applyAsLong(ops);
+            nsPerOp.add((System.nanoTime() - start) / (double) ops);
+            totalOps += ops;
+        }
+        allocated = threads.getThreadAllocatedBytes(threadId) - allocated;
+
+        double mean = nsPerOp.stream().mapToDouble(Double::doubleValue).average().orElse(0);
+        double min = nsPerOp.stream().mapToDouble(Double::doubleValue).min().orElse(0);
+        return String.format("{\"benchmark\":\"%s\",\"ops\":%d,\"nsPerOp\":%.3f,\"minNsPerOp\":%.3f,"
+                        + "\"opsPerSec\":%.1f,\"bytesPerOp\":%.2f,\"checksum\":%d}",
+                name, totalOps, mean, min, 1e9 / mean, allocated / (double) totalOps, checksum);
+    }
+
+    private static List<Card> standardCards() {
+        List<Card> cards = new ArrayList<>();
+        for (byte face : CardCode.standardDeck()) {
+            cards.add(CardCode.toCard(face));
+        }
+        return cards;
+    }
+
+    private static Game headlessGame(int numPlayers, long seed) {
+        return new Game(Utils.repeat(numPlayers, new GreedyBot()), GameOutput.NONE, seed);
+    }
+
+    /**
+     * draws the whole deck, one op is one drawCard, the deck is rebuilt when it is empty
+     */
+    private static long drawCard(long ops) {
+        List<Card> cards = standardCards();
+        SplittableRandom rng = new SplittableRandom(1);
+        Deck deck = new Deck(cards, rng, () -> {});
+        long checksum = 0;
+        for (long i = 0; i < ops; i++) {
+            if (deck.numCardsRemaining() == 0) {
+                deck.addCards(cards);
+            }
+            try {
+                checksum += deck.drawCard().getFace();
+            } catch (Deck.EmptyDeckException e) {
+                throw new AssertionError(e);
+            }
+        }
+        return checksum;
+    }
+
+    /**
+     * draws the whole lazy deck, one op is one drawCard, the deck is refilled when it is empty
+     */
+    private static long drawCardLazy(long ops) {
+        byte[] faces = CardCode.standardDeck();
+        Card[] cards = standardCards().toArray(new Card[0]);
+        Deck deck = new Deck(faces, new SplittableRandom(1), () -> {}, true);
+        long checksum = 0;
+        for (long i = 0; i < ops; i++) {
+            if (deck.numCardsRemaining() == 0) {
+                deck.shuffleIn(cards, 0, cards.length);
+            }
+            try {
+                checksum += deck.drawCard().getFace();
+            } catch (Deck.EmptyDeckException e) {
+                throw new AssertionError(e);
+            }
+        }
+        return checksum;
+    }
+
+    /**
+     * one op is one shuffle of a full 108 card deck
+     */
+    private static long shuffleDeck(long ops) {
+        Deck deck = new Deck(standardCards(), new SplittableRandom(1), () -> {});
+        for (long i = 0; i < ops; i++) {
+            deck.shuffleDeck();
+        }
+        return deck.numCardsRemaining();
+    }
+
+    /**
+     * one op is noMatches of a 20 card hand against every one of the 55 faces
+     */
+    private static long noMatches(long ops) {
+        Hand hand = new Hand(new ArrayList<>());
+        for (int i = 0; i < 20; i++) {
+            hand.addCard(CardCode.toCard(CardCode.number(Card.Color.RED, i % 10)));
+        }
+        long checksum = 0;
+        for (long i = 0; i < ops; i++) {
+            for (int top = 0; top <= CardCode.NUM_FACES; top++) {
+                if (hand.noMatches(CardCode.toCard(top))) { checksum++; }
+            }
+        }
+        return checksum;
+    }
+
+    /**
+     * one op plays a number card from a 10 card hand onto a fresh game and puts it back in the hand
+     */
+    private static long playCard(long ops) {
+        Game game = headlessGame(3, 1);
+        Hand hand = new Hand(new ArrayList<>());
+        Card card = CardCode.toCard(CardCode.number(Card.Color.GREEN, 7));
+        for (int i = 0; i < 10; i++) {
+            hand.addCard(card);
+        }
+        long checksum = 0;
+        for (long i = 0; i < ops; i++) {
+            try {
+                hand.playCard(game, (int) (i % 10));
+            } catch (Card.CannotPlayCardException e) {
+                throw new AssertionError(e);
+            }
+            hand.addCard(card);
+            checksum += hand.numCardsRemaining();
+            if ((i & 0xffff) == 0xffff) {
+                game = headlessGame(3, i);
+            }
+        }
+        return checksum;
+    }
+
+    /**
+     * one op draws a 15 card hand as text
+     */
+    private static long handToString(long ops) {
+        Hand hand = new Hand(new ArrayList<>(standardCards().subList(40, 55)));
+        long checksum = 0;
+        for (long i = 0; i < ops; i++) {
+            checksum += hand.toString().length();
+        }
+        return checksum;
+    }
+
+    /**
+     * one op stacks three skips on the seats ahead of a 10 seat table and moves to the next player
+     */
+    private static long nextWithStackedSkips(long ops) {
+        UnusIterator<Integer> players = new UnusIterator<>(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9));
+        long checksum = 0;
+        for (long i = 0; i < ops; i++) {
+            int cur = players.getCurIndex();
+            players.skip((cur + 1) % 10);
+            players.skip((cur + 1) % 10);
+            players.skip((cur + 2) % 10);
+            if (i % 7 == 0) { players.reverse(); }
+            players.next();
+            checksum += players.getCurIndex();
+        }
+        return checksum;
+    }
+
+    /**
+     * one op stacks skips on the next 40 seats of a 500 seat table and moves to the next player,
+     * so every next passes over a long run of skipped seats
+     */
+    private static long nextAtBigTable(long ops) {
+        List<Integer> seats = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            seats.add(i);
+        }
+        UnusIterator<Integer> players = new UnusIterator<>(seats);
+        long checksum = 0;
+        for (long i = 0; i < ops; i++) {
+            int cur = players.getCurIndex();
+            for (int k = 1; k <= 40; k++) {
+                players.skip(cur + k);
+            }
+            players.next();
+            checksum += players.getCurIndex() + players.findNextIndex(false);
+        }
+        return checksum;
+    }
+
+    /**
+     * one op generates every legal move of a 20 card hand at a 3 player table,
+     * cycling the top card through all 55 faces, the play area is cut back every 1024 ops
+     */
+    private static long generateMoves(long ops) {
+        Game game = headlessGame(3, 1);
+        Hand hand = game.getPlayers().current().hand;
+        for (int i = 0; i < 15; i++) {
+            hand.addCard(CardCode.toCard((i * 7) % CardCode.NONE));
+        }
+        GameSnapshot start = game.snapshot();
+        int[] moves = new int[64];
+        long checksum = 0;
+        for (long i = 0; i < ops; i++) {
+            game.playCard(CardCode.toCard((int) (i % CardCode.NUM_FACES)));
+            checksum += Moves.generate(game, moves);
+            if ((i & 0x3ff) == 0x3ff) {
+                game.restore(start);
+            }
+        }
+        return checksum;
+    }
+
+    /**
+     * one op matches every one of the 55 faces against every face, every Card subclass is covered
+     */
+    private static long matchAllFaces(long ops) {
+        Card[] faces = new Card[CardCode.NUM_FACES + 1];
+        for (int face = 0; face < faces.length; face++) {
+            faces[face] = CardCode.toCard(face);
+        }
+        long checksum = 0;
+        for (long i = 0; i < ops; i++) {
+            for (Card card : faces) {
+                for (Card top : faces) {
+                    if (card.match(top)) { checksum++; }
+                }
+            }
+        }
+        return checksum;
+    }
+
+    /**
+     * one op takes a snapshot of a freshly dealt 4 player game and restores an older one
+     */
+    private static long snapshotRestore(long ops) {
+        Game game = headlessGame(4, 1);
+        GameSnapshot start = game.snapshot();
+        long checksum = 0;
+        for (long i = 0; i < ops; i++) {
+            GameSnapshot snapshot = game.snapshot();
+            game.restore(start);
+            checksum += snapshot.getCurIndex();
+        }
+        return checksum;
+    }
+
+    /**
+     * one op is one whole game of GreedyBots at a big table, dealt from Game.decksFor decks
+     */
+    private static long bigTableGames(int numPlayers, long ops) {
+        List<GreedyBot> seats = Utils.repeat(numPlayers, new GreedyBot());
+        long checksum = 0;
+        for (long i = 0; i < ops; i++) {
+            Game game = new Game(seats, GameOutput.NONE, i);
+            game.start();
+            checksum += game.getResult().getTurns();
+        }
+        return checksum;
+    }
+
+    /**
+     * one op is one whole headless 3 player game of GreedyBots
+     */
+    private static long greedyGames(long ops) {
+        long checksum = 0;
+        for (long i = 0; i < ops; i++) {
+            Game game = headlessGame(3, i);
+            game.start();
+            checksum += game.getResult().getTurns();
+        }
+        return checksum;
+    }
+
+    /**
+     * one op is one whole 3 player FastGame
+     */
+    private static long fastGames(long ops) {
+        long checksum = 0;
+        for (long i = 0; i < ops; i++) {
+            FastGame game = new FastGame(3, i);
+            checksum += game.play();
+        }
+        return checksum;
+    }
+
+    public static void main(String[] args) {
+        String filter = args.length > 0 ? args[0] : "";
+        int warmups = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        long roundMillis = args.length > 3 ? Long.parseLong(args[3]) : 200;
+        new Benchmarks().run(filter, warmups, rounds, roundMillis);
+    }
+}
@@ -0,0 +1,44 @@
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Corey Walker
+ * GameOutput that keeps lines in a StringBuilder until it is flushed,
+ * then writes them to its target in a single write.
+ * The StringBuilder is reused for every turn.
+ */
+public final class BufferedOutput implements GameOutput {
+    private final Appendable target;
+    private final StringBuilder buffer = new StringBuilder();
+
+    /**
+     * constructor for a BufferedOutput
+     * @param target where flushed text is written, flushed too if it is Flushable
+     */
+    public BufferedOutput(Appendable target) {
+        this.target = target;
+    }
+
+    @Override
+    public void println(Object line) {
+        GameOutput.appendLine(buffer, line);
+    }
+
+    /**
+     * writes everything held so far to the target and empties the buffer
+     */
+    @Override
+    public void flush() {
+        if (buffer.length() == 0) { return; }
+        try {
+            target.append(buffer);
+            if (target instanceof Flushable flushable) {
+                flushable.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.setLength(0);
+    }
+}
@@ -0,0 +1,27 @@
+/**
+ * Corey Walker
+ * GameOutput that keeps every line in memory, for looking at what a game printed afterwards
+ */
+public final class CaptureOutput implements GameOutput {
+    private final StringBuilder captured = new StringBuilder();
+
+    @Override
+    public void println(Object line) {
+        GameOutput.appendLine(captured, line);
+    }
+
+    /**
+     * getter for the captured text
+     * @return String of every line printed so far, each ending in a new line
+     */
+    public String getText() {
+        return captured.toString();
+    }
+
+    /**
+     * throws away everything captured so far
+     */
+    public void clear() {
+        captured.setLength(0);
+    }
+}
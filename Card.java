@@ -1,4 +1,3 @@
-import java.util.LinkedList;
 import java.util.List;
 
 /**
@@ -6,9 +5,11 @@ import java.util.List;
  * Abstract class all cards are based on.
  * -Color enum: cards can be Red, Yellow, Blue, Green, or Wild
  * -StrRep: the representation of the color to be printed on the card
+ * Every card is a view over its CardCode face, use CardCode.toCard to get the shared card for a face.
  */
 public abstract class Card {
     private final Color cardColor;
+    private final byte face;
 
     public enum Color {
         RED("R"), YELLOW("Y"), BLUE("B"), GREEN("G"), WILD("W");
@@ -32,9 +33,19 @@ public abstract class Card {
     /**
      * constructor for a Card
      * @param cardColor color from the enum list for the card
+     * @param face CardCode of the card
      */
-    public Card(Color cardColor) {
+    public Card(Color cardColor, byte face) {
         this.cardColor = cardColor;
+        this.face = face;
+    }
+
+    /**
+     * getter for the card's face
+     * @return byte CardCode of the card
+     */
+    public final byte getFace() {
+        return face;
     }
 
     /**
@@ -56,12 +67,13 @@ public abstract class Card {
 
     /**
      * Matches two cards according to Unus rules which state that two cards
-     * match if they have the same color or the same symbol/numeric value
+     * match if they have the same color or the same symbol/numeric value.
+     * The answer for every pair of faces is precomputed in CardCode so this is a table lookup.
      * @param other Card to match this card against
      * @return true if the two cards match and false otherwise
      */
     public boolean match(Card other) {
-        return this.getCardColor().match(other.getCardColor()) || this.matchValue(other);
+        return CardCode.match(face, other.face);
     }
 
     /**
@@ -82,46 +94,29 @@ public abstract class Card {
     }
 
     /**
-     * This function does the following:
-     * - Creates a List<String>
-     * - Adds the top part of the card to this list which is the following string:
+     * Gets the lines of this card, which are drawn once per face by CardRenderer.
+     * - The top part of the card is the following string:
      *   "/-------\\"
-     * - Then constructs the middle of the card which depends on the length of the strRep()
-     *   of the current card. If it is length 3 the following string should be constructed and added to the list:
+     * - The middle of the card depends on the length of the strRep()
+     *   of the current card. If it is length 3 it is:
      *   "| $getCardColor() |$strRep()|"
-     *   Otherwise if it is length 1 then the following string should be constructed and added to the list:
+     *   Otherwise if it is length 1 then it is:
      *   "| $getCardColor() | $strRep() |"
-     * - Then the bottom part of the card is added to the list which is given by the following string:
+     * - The bottom part of the card is given by the following string:
      *   "\\-------/"
-     * - This list is then returned
-     * @return List of lines of this card
+     * @return shared, unmodifiable List of lines of this card
      */
     public List<String> prettyPrint() {
-        List<String> cardList = new LinkedList<>();
-        cardList.add("/-------\\");
-        if (strRep().length() == 3){
-            cardList.add("| " + getCardColor()  + " |" + strRep() + "|");
-        } else if (strRep().length() == 1) {
-            cardList.add("| " + getCardColor()  + " | " + strRep() + " |");
-        }
-        cardList.add("\\-------/");
-
-        return cardList;
+        return CardRenderer.lines(face);
     }
 
     /**
-     * Creates a new StringBuilder object
-     * Uses prettyPrint to build a string of the card's representation with a new line at the end of each line
+     * Gets the card's representation with a new line at the end of each line,
+     * the String is built once per face by CardRenderer
      * @return String representation of the card
      */
     @Override
     public final String toString() {
-        StringBuilder sb = new StringBuilder();
-
-        for (String line : prettyPrint()) {
-            sb.append(line).append("\n");
-        }
-
-        return sb.toString();
+        return CardRenderer.cardString(face);
     }
 }
@@ -0,0 +1,272 @@
+/**
+ * Corey Walker
+ * Every Unus card face encoded as a single byte so games can be stored in primitive arrays.
+ * - the 52 colored faces are color * 13 + symbol
+ *   - symbols 0 through 9 are the numbers
+ *   - symbol 10 is skip, 11 is reverse, and 12 is draw 2
+ * - 52 is a wild, 53 is a wild draw 4
+ * - 54 is the None card returned when the play area is empty
+ * Card objects are views over these codes, toCard returns the one shared Card for each face.
+ * There are only 55 faces so the faces playable on a top card fit in the bits of one long,
+ * which makes a match a single table lookup and "can anything in this hand be played"
+ * a single AND against the hand's mask.
+ */
+public final class CardCode {
+    public static final int NUM_FACES = 54;
+    /** number of cards in one standard deck */
+    public static final int DECK_SIZE = 108;
+    public static final byte WILD = 52;
+    public static final byte WILD_DRAW_4 = 53;
+    public static final byte NONE = 54;
+
+    public static final int KIND_NUMBER = 0;
+    public static final int KIND_SKIP = 1;
+    public static final int KIND_REVERSE = 2;
+    public static final int KIND_DRAW = 3;
+    public static final int KIND_WILD = 4;
+    public static final int KIND_NONE = 5;
+
+    private static final int SYMBOLS = 13;
+    private static final int SKIP = 10;
+    private static final int REVERSE = 11;
+    private static final int DRAW_2 = 12;
+
+    private static final Card.Color[] COLORS = Card.Color.values();
+    private static final Card[] CARDS = new Card[NUM_FACES + 1];
+    private static final long[] PLAYABLE_ON = new long[NUM_FACES + 1];
+    private static final byte[] KINDS = new byte[NUM_FACES + 1];
+    private static final byte[] VALUES = new byte[NUM_FACES + 1];
+
+    static {
+        for (int face = 0; face <= NUM_FACES; face++) {
+            KINDS[face] = (byte) computeKind(face);
+            VALUES[face] = (byte) computeValue(face);
+        }
+        for (int face = 0; face <= NUM_FACES; face++) {
+            CARDS[face] = createCard(face);
+        }
+        for (int top = 0; top <= NUM_FACES; top++) {
+            for (int face = 0; face <= NUM_FACES; face++) {
+                if (rulesMatch(face, top)) { PLAYABLE_ON[top] |= bit(face); }
+            }
+        }
+    }
+
+    private CardCode() {}
+
+    /**
+     * code for a number card
+     * @param color Red, Yellow, Blue, or Green
+     * @param n value between 0 and 9, inclusive
+     * @return byte code of the card
+     */
+    public static byte number(Card.Color color, int n) {
+        if (!(n >= 0 && n <= 9)) {
+            throw new IllegalArgumentException(n + " must be between [0,9]");
+        }
+        return colored(color, n);
+    }
+
+    /**
+     * code for a skip card
+     * @param color Red, Yellow, Blue, or Green
+     * @return byte code of the card
+     */
+    public static byte skip(Card.Color color) {
+        return colored(color, SKIP);
+    }
+
+    /**
+     * code for a reverse card
+     * @param color Red, Yellow, Blue, or Green
+     * @return byte code of the card
+     */
+    public static byte reverse(Card.Color color) {
+        return colored(color, REVERSE);
+    }
+
+    /**
+     * code for a draw card, a wild one must draw 4 and a colored one must draw 2
+     * @param color color of the card
+     * @param n number of cards the next player draws
+     * @return byte code of the card
+     */
+    public static byte draw(Card.Color color, int n) {
+        if (color == Card.Color.WILD && n == 4) { return WILD_DRAW_4; }
+        if (color != Card.Color.WILD && n == 2) { return colored(color, DRAW_2); }
+        throw new IllegalArgumentException(color + " draw cards cannot draw " + n);
+    }
+
+    private static byte colored(Card.Color color, int symbol) {
+        if (color == Card.Color.WILD) {
+            throw new IllegalArgumentException("only wild cards and wild draw 4s can be wild");
+        }
+        return (byte) (color.ordinal() * SYMBOLS + symbol);
+    }
+
+    /**
+     * color of a face
+     * @param face code of the card
+     * @return Color of the card, WILD for wilds and None
+     */
+    public static Card.Color color(int face) {
+        return face >= WILD ? Card.Color.WILD : COLORS[face / SYMBOLS];
+    }
+
+    /**
+     * index of a face's color, the same as its Color's ordinal
+     * @param face code of the card
+     * @return 0 through 3 for Red, Yellow, Blue, Green and 4 for WILD
+     */
+    public static int colorIndex(int face) {
+        return face >= WILD ? Card.Color.WILD.ordinal() : face / SYMBOLS;
+    }
+
+    /**
+     * kind of a face
+     * @param face code of the card
+     * @return one of the KIND constants
+     */
+    public static int kind(int face) {
+        return KINDS[face];
+    }
+
+    /**
+     * value of a face
+     * @param face code of the card
+     * @return the number on a number card, the cards to draw on a draw card, 0 otherwise
+     */
+    public static int value(int face) {
+        return VALUES[face];
+    }
+
+    private static int computeKind(int face) {
+        if (face == NONE) { return KIND_NONE; }
+        if (face == WILD) { return KIND_WILD; }
+        if (face == WILD_DRAW_4) { return KIND_DRAW; }
+        int symbol = face % SYMBOLS;
+        if (symbol < SKIP) { return KIND_NUMBER; }
+        if (symbol == SKIP) { return KIND_SKIP; }
+        if (symbol == REVERSE) { return KIND_REVERSE; }
+        return KIND_DRAW;
+    }
+
+    private static int computeValue(int face) {
+        switch (computeKind(face)) {
+            case KIND_NUMBER: return face % SYMBOLS;
+            case KIND_DRAW: return face == WILD_DRAW_4 ? 4 : 2;
+            default: return 0;
+        }
+    }
+
+    /**
+     * Checks if a face can be played on top of another by looking it up in the table
+     * @param face code of the card being played
+     * @param top code of the card on top of the play area
+     * @return true if face can be played on top
+     */
+    public static boolean match(int face, int top) {
+        return (PLAYABLE_ON[top] & bit(face)) != 0;
+    }
+
+    /**
+     * every face that can be played on a top card
+     * @param top code of the card on top of the play area
+     * @return long with bit f set if face f can be played on top
+     */
+    public static long playableOn(int top) {
+        return PLAYABLE_ON[top];
+    }
+
+    /**
+     * the bit for a face in a mask of faces
+     * @param face code of the card
+     * @return long with only that face's bit set
+     */
+    public static long bit(int face) {
+        return 1L << face;
+    }
+
+    /**
+     * The Unus rules the table is built from: two cards match if they have the same color
+     * or the same symbol/numeric value, and wild cards match everything
+     */
+    private static boolean rulesMatch(int face, int top) {
+        if (face >= WILD || top >= WILD) { return true; }
+        return face / SYMBOLS == top / SYMBOLS || face % SYMBOLS == top % SYMBOLS;
+    }
+
+    /**
+     * the shared Card for a face, cards are immutable so one instance per face is enough
+     * @param face code of the card
+     * @return Card with that code
+     */
+    public static Card toCard(int face) {
+        return CARDS[face];
+    }
+
+    /**
+     * Codes for the standard 108 card Unus deck, in the same order Game has always built it
+     * @return byte array of the 108 codes
+     */
+    public static byte[] standardDeck() {
+        return standardDeck(1);
+    }
+
+    /**
+     * Codes for several standard decks one after another, for tables too big for one deck
+     * @param numDecks number of decks, at least 1
+     * @return byte array of numDecks * DECK_SIZE codes
+     */
+    public static byte[] standardDeck(int numDecks) {
+        if (numDecks < 1) {
+            throw new IllegalArgumentException("need at least one deck, not " + numDecks);
+        }
+        byte[] deck = new byte[numDecks * DECK_SIZE];
+        fillStandardDeck(deck);
+        for (int copied = DECK_SIZE; copied < deck.length; copied *= 2) {
+            System.arraycopy(deck, 0, deck, copied, Math.min(copied, deck.length - copied));
+        }
+        return deck;
+    }
+
+    /**
+     * writes one standard deck into the start of deck
+     * @param deck array with room for at least DECK_SIZE codes
+     */
+    private static void fillStandardDeck(byte[] deck) {
+        Card.Color[] order = {Card.Color.BLUE, Card.Color.RED, Card.Color.GREEN, Card.Color.YELLOW};
+        int size = 0;
+        for (Card.Color color : order) {
+            deck[size++] = number(color, 0);
+        }
+        for (int i = 1; i < 10; i++) {
+            for (int j = 0; j < 2; j++) {
+                for (Card.Color color : order) {
+                    deck[size++] = number(color, i);
+                }
+            }
+        }
+        for (int i = 0; i < 2; i++) {
+            for (Card.Color color : order) { deck[size++] = reverse(color); }
+            for (Card.Color color : order) { deck[size++] = skip(color); }
+            for (Card.Color color : order) { deck[size++] = draw(color, 2); }
+        }
+        for (int i = 0; i < 4; i++) {
+            deck[size++] = WILD;
+            deck[size++] = WILD_DRAW_4;
+        }
+    }
+
+    private static Card createCard(int face) {
+        Card.Color color = color(face);
+        switch (kind(face)) {
+            case KIND_NUMBER: return new Numbers(color, value(face));
+            case KIND_SKIP: return new Skip(color);
+            case KIND_REVERSE: return new Reverse(color);
+            case KIND_DRAW: return new DrawN(color, value(face));
+            case KIND_WILD: return new Wild(color);
+            default: return new None();
+        }
+    }
+}
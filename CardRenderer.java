@@ -0,0 +1,131 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Corey Walker
+ * Draws cards and hands as text.
+ * Every card face is drawn once when this class loads and the lines are kept,
+ * so printing a card or a hand never builds the same strings again.
+ * Hands are written row by row straight into a StringBuilder or Appendable.
+ */
+public final class CardRenderer {
+    private static final String TOP = "/-------\\";
+    private static final String BOTTOM = "\\-------/";
+    static final int CARD_WIDTH = TOP.length() + 1;
+
+    private static final List<List<String>> LINES;
+    private static final String[] CARD_STRINGS = new String[CardCode.NUM_FACES + 1];
+
+    static {
+        List<List<String>> lines = new ArrayList<>();
+        for (int face = 0; face <= CardCode.NUM_FACES; face++) {
+            List<String> faceLines = List.of(render(CardCode.toCard(face)));
+            StringBuilder sb = new StringBuilder();
+            for (String line : faceLines) {
+                sb.append(line).append("\n");
+            }
+            lines.add(faceLines);
+            CARD_STRINGS[face] = sb.toString();
+        }
+        LINES = List.copyOf(lines);
+    }
+
+    private CardRenderer() {}
+
+    /**
+     * This function does the following:
+     * - Adds the top part of the card which is the following string:
+     *   "/-------\\"
+     * - Then constructs the middle of the card which depends on the length of the strRep()
+     *   of the card. If it is length 3 the following string is constructed:
+     *   "| $getCardColor() |$strRep()|"
+     *   Otherwise if it is length 1 then the following string is constructed:
+     *   "| $getCardColor() | $strRep() |"
+     * - Then the bottom part of the card is added which is given by the following string:
+     *   "\\-------/"
+     * @return array of lines of the card
+     */
+    private static String[] render(Card card) {
+        String strRep = card.strRep();
+        if (strRep.length() == 3) {
+            return new String[] {TOP, "| " + card.getCardColor() + " |" + strRep + "|", BOTTOM};
+        } else if (strRep.length() == 1) {
+            return new String[] {TOP, "| " + card.getCardColor() + " | " + strRep + " |", BOTTOM};
+        }
+        return new String[] {TOP, BOTTOM};
+    }
+
+    /**
+     * the lines of a card face
+     * @param face CardCode of the card
+     * @return shared, unmodifiable list of the lines of the card
+     */
+    public static List<String> lines(int face) {
+        return LINES.get(face);
+    }
+
+    /**
+     * a card face with a new line at the end of each line
+     * @param face CardCode of the card
+     * @return String representation of the card
+     */
+    public static String cardString(int face) {
+        return CARD_STRINGS[face];
+    }
+
+    /**
+     * number of characters appendHand writes for a hand
+     * @param hand hand to be written
+     * @return int length of the hand's text, so a StringBuilder can be sized once
+     */
+    public static int handLength(Hand hand) {
+        int numCards = hand.numCardsRemaining();
+        // three rows of cards, then "    " + index + "     " under each card
+        int length = 3 * (CARD_WIDTH * numCards + 1) + 10 * numCards;
+        for (int power = 10; power < numCards; power *= 10) {
+            length += numCards - power;
+        }
+        return length;
+    }
+
+    /**
+     * Appends a hand horizontally, see Hand::toString for what it looks like
+     * @param hand hand to be written
+     * @param sb StringBuilder to append to
+     * @return sb, so calls can be chained
+     */
+    public static StringBuilder appendHand(Hand hand, StringBuilder sb) {
+        try {
+            writeHand(hand, sb);
+        } catch (IOException e) {
+            // StringBuilder never throws
+            throw new AssertionError(e);
+        }
+        return sb;
+    }
+
+    /**
+     * Writes a hand horizontally, one row at a time, using the stored lines of each face
+     * @param hand hand to be written
+     * @param out where the hand is written
+     * @throws IOException if out cannot be written to
+     */
+    public static void writeHand(Hand hand, Appendable out) throws IOException {
+        int numCards = hand.numCardsRemaining();
+        byte[] faces = new byte[numCards];
+        hand.copyFaces(faces, 0);
+        for (int row = 0; row < 3; row++) {
+            for (int i = 0; i < numCards; i++) {
+                List<String> lines = LINES.get(faces[i]);
+                if (row < lines.size()) {
+                    out.append(lines.get(row)).append(' ');
+                }
+            }
+            out.append('\n');
+        }
+        for (int i = 0; i < numCards; i++) {
+            out.append("    ").append(Integer.toString(i)).append("     ");
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/**
+ * Corey Walker
+ * A computer player that is greedy by color
+ * - plays the matching card whose color it holds the most of, so it keeps its biggest color going
+ * - wild cards are only played when nothing colored matches
+ * - always skips whoever would play next, like GreedyBot
+ * It keeps no state, so one ColorBot can sit in any number of seats and games at once.
+ */
+public final class ColorBot implements DecisionProvider {
+    private static final Card.Color[] COLORS = Card.Color.values();
+    private final GreedyBot skips = new GreedyBot();
+
+    /**
+     * finds the matching card of the color with the most cards in the hand
+     * @param game the game currently being played
+     * @param hand the bot's hand
+     * @return index of the chosen card, 0 if there is none
+     */
+    @Override
+    public int chooseCard(Game game, Hand hand) {
+        // the faces with the biggest color count, the first of them in the hand is played
+        long best = 0;
+        int bestCount = -1;
+        for (long faces = hand.playableFaces(game.getTopCard()); faces != 0; faces &= faces - 1) {
+            int face = Long.numberOfTrailingZeros(faces);
+            int color = CardCode.colorIndex(face);
+            int count = color == Card.Color.WILD.ordinal() ? 0 : hand.countColor(COLORS[color]);
+            if (count > bestCount) {
+                best = 0;
+                bestCount = count;
+            }
+            if (count == bestCount) {
+                best |= CardCode.bit(face);
+            }
+        }
+        return Math.max(hand.firstOf(best), 0);
+    }
+
+    /**
+     * skips the player who would otherwise go next
+     * @param game the game currently being played
+     * @return index of the player to skip
+     */
+    @Override
+    public int chooseSkip(Game game) {
+        return skips.chooseSkip(game);
+    }
+}
@@ -0,0 +1,330 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Corey Walker
+ * GameListener that exports one record per turn and one per game in a compact columnar file,
+ * for looking at simulations with something better than the console text.
+ * Records are collected a block at a time, each column in its own buffer, and every full block
+ * is written to the file in one gathering write, so memory stays at one block however many turns are exported.
+ * The file is:
+ * - the magic bytes "UNUSCOL2"
+ * - the dictionary of card faces, a byte with the number of faces and then for each face
+ *   its name as a byte length and ASCII bytes, every face column is an index into it (see CardCode)
+ * - blocks, each a type byte, 'T' for turns or 'G' for games, the number of rows (int),
+ *   the number of columns (byte), the length of every column in bytes (int each) and then the columns
+ * Turn columns: game (delta from the row before, varint), turn (zigzag delta from the row before, varint),
+ * seat (varint), top card after the turn (face), card played (face, NONE if nothing), hand size after
+ * the turn (varint), cards the seat drew itself (varint), actions (byte, bit 0 a reverse, the rest the
+ * number of skips), and cards a DrawN played this turn made the next player draw (varint).
+ * Game columns: game (delta, varint), seed (8 bytes), players, decks, winner, turns, reshuffles,
+ * and cards drawn including DrawN cards (each a varint).
+ * Turn numbers go up by one, so almost every turn row is 9 to 11 bytes.
+ * ColumnarReader reads the file back. One exporter should only be used by one thread.
+ */
+public final class ColumnarExporter implements GameListener, Closeable {
+    static final byte[] MAGIC = "UNUSCOL2".getBytes(StandardCharsets.US_ASCII);
+    static final byte TURNS = 'T';
+    static final byte GAMES = 'G';
+    static final int TURN_COLUMNS = 9;
+    static final int GAME_COLUMNS = 8;
+    static final int ACTION_REVERSE = 1;
+
+    private static final int BLOCK_ROWS = 1 << 16;
+    private static final int MAX_VARINT = 5;
+
+    private final FileChannel channel;
+    private final Column[] turnColumns = new Column[TURN_COLUMNS];
+    private final Column[] gameColumns = new Column[GAME_COLUMNS];
+    private int turnRows;
+    private int gameRows;
+
+    // the game being exported
+    private long gameNumber = -1;
+    private long lastTurnGame;
+    private long lastGameGame;
+    private int lastTurn;
+    private long seed;
+    private int numPlayers;
+    private int numDecks;
+    private int[] handSizes = new int[0];
+    private int topFace;
+    private int playedFace;
+    private int turnDrawn;
+    private int turnPenalty;
+    private int turnActions;
+    private int reshuffles;
+    private int cardsDrawn;
+
+    /**
+     * opens an exporter, replacing the file if it exists
+     * @param path file to export to
+     * @throws IOException if the file cannot be opened
+     */
+    public ColumnarExporter(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        int[] turnWidths = {MAX_VARINT, MAX_VARINT, MAX_VARINT, 1, 1, MAX_VARINT, MAX_VARINT, 1, MAX_VARINT};
+        for (int i = 0; i < TURN_COLUMNS; i++) {
+            turnColumns[i] = new Column(BLOCK_ROWS * turnWidths[i]);
+        }
+        int[] gameWidths = {MAX_VARINT, 8, MAX_VARINT, MAX_VARINT, MAX_VARINT, MAX_VARINT, MAX_VARINT, MAX_VARINT};
+        for (int i = 0; i < GAME_COLUMNS; i++) {
+            gameColumns[i] = new Column(BLOCK_ROWS * gameWidths[i]);
+        }
+        writeHeader();
+    }
+
+    /**
+     * writes the magic bytes and the face dictionary
+     * @throws IOException if the file cannot be written
+     */
+    private void writeHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(MAGIC.length + 1 + (CardCode.NUM_FACES + 1) * 16);
+        header.put(MAGIC);
+        header.put((byte) (CardCode.NUM_FACES + 1));
+        for (int face = 0; face <= CardCode.NUM_FACES; face++) {
+            Card card = CardCode.toCard(face);
+            String name = face == CardCode.NONE ? "NONE" : card.getCardColor() + " " + card.strRep();
+            byte[] bytes = name.getBytes(StandardCharsets.US_ASCII);
+            header.put((byte) bytes.length).put(bytes);
+        }
+        header.flip();
+        write(header);
+    }
+
+    @Override
+    public void onStart(int numPlayers, int numDecks, long seed) {
+        gameNumber++;
+        this.seed = seed;
+        this.numPlayers = numPlayers;
+        this.numDecks = numDecks;
+        if (handSizes.length < numPlayers) {
+            handSizes = new int[numPlayers];
+        }
+        Arrays.fill(handSizes, 0, numPlayers, 0);
+        topFace = CardCode.NONE;
+        reshuffles = 0;
+        cardsDrawn = 0;
+        startTurn();
+    }
+
+    private void startTurn() {
+        playedFace = CardCode.NONE;
+        turnDrawn = 0;
+        turnPenalty = 0;
+        turnActions = 0;
+    }
+
+    @Override
+    public void onDeal(int seat, int face) {
+        handSizes[seat]++;
+    }
+
+    @Override
+    public void onDraw(int seat, int face) {
+        handSizes[seat]++;
+        turnDrawn++;
+        cardsDrawn++;
+    }
+
+    /**
+     * The cards a DrawN makes the next player draw are told during the turn of whoever played it,
+     * they go in their own column so the drawn column is only ever the seat's own draws
+     */
+    @Override
+    public void onPenaltyDraw(int seat, int face) {
+        handSizes[seat]++;
+        turnPenalty++;
+        cardsDrawn++;
+    }
+
+    @Override
+    public void onPlay(int seat, int index, int face) {
+        handSizes[seat]--;
+        topFace = face;
+        playedFace = face;
+    }
+
+    @Override
+    public void onSkip(int seat, int target, int depth) {
+        if (turnActions >>> 1 < 127) {
+            turnActions += 2;
+        }
+    }
+
+    @Override
+    public void onReverse(int seat) {
+        turnActions |= ACTION_REVERSE;
+    }
+
+    @Override
+    public void onReshuffle(int cardsReturned) {
+        reshuffles++;
+    }
+
+    @Override
+    public void onTurnEnd(int seat, int turn) {
+        turnColumns[0].putVarint((int) (gameNumber - lastTurnGame));
+        turnColumns[1].putVarint(zigzag(turn - lastTurn));
+        turnColumns[2].putVarint(seat);
+        turnColumns[3].put(topFace);
+        turnColumns[4].put(playedFace);
+        turnColumns[5].putVarint(handSizes[seat]);
+        turnColumns[6].putVarint(turnDrawn);
+        turnColumns[7].put(turnActions);
+        turnColumns[8].putVarint(turnPenalty);
+        lastTurnGame = gameNumber;
+        lastTurn = turn;
+        startTurn();
+        if (++turnRows == BLOCK_ROWS) {
+            flushTurns();
+        }
+    }
+
+    @Override
+    public void onWin(int seat, int turns) {
+        gameColumns[0].putVarint((int) (gameNumber - lastGameGame));
+        gameColumns[1].putLong(seed);
+        gameColumns[2].putVarint(numPlayers);
+        gameColumns[3].putVarint(numDecks);
+        gameColumns[4].putVarint(seat);
+        gameColumns[5].putVarint(turns);
+        gameColumns[6].putVarint(reshuffles);
+        gameColumns[7].putVarint(cardsDrawn);
+        lastGameGame = gameNumber;
+        if (++gameRows == BLOCK_ROWS) {
+            flushGames();
+        }
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private void flushTurns() {
+        writeBlock(TURNS, turnRows, turnColumns);
+        turnRows = 0;
+    }
+
+    private void flushGames() {
+        writeBlock(GAMES, gameRows, gameColumns);
+        gameRows = 0;
+    }
+
+    /**
+     * Writes a block, then empties its columns.
+     * Deltas carry on from the last row of the block before, so blocks are read in order.
+     */
+    private void writeBlock(byte type, int rows, Column[] columns) {
+        if (rows == 0) { return; }
+        ByteBuffer header = ByteBuffer.allocate(1 + 4 + 1 + 4 * columns.length);
+        header.put(type).putInt(rows).put((byte) columns.length);
+        for (Column column : columns) {
+            header.putInt(column.length);
+        }
+        header.flip();
+        ByteBuffer[] buffers = new ByteBuffer[columns.length + 1];
+        buffers[0] = header;
+        for (int i = 0; i < columns.length; i++) {
+            buffers[i + 1] = ByteBuffer.wrap(columns[i].bytes, 0, columns[i].length);
+        }
+        try {
+            long remaining = 0;
+            for (ByteBuffer buffer : buffers) {
+                remaining += buffer.remaining();
+            }
+            while (remaining > 0) {
+                remaining -= channel.write(buffers);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        for (Column column : columns) {
+            column.length = 0;
+        }
+    }
+
+    private void write(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * writes the rows collected so far, each table as one more block
+     */
+    public void flush() {
+        flushTurns();
+        flushGames();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        channel.close();
+    }
+
+    /**
+     * One column of a block, a byte array with room for a whole block of the widest values
+     */
+    private static final class Column {
+        private final byte[] bytes;
+        private int length;
+
+        Column(int capacity) {
+            this.bytes = new byte[capacity];
+        }
+
+        void put(int value) {
+            bytes[length++] = (byte) value;
+        }
+
+        void putVarint(int value) {
+            while ((value & ~0x7f) != 0) {
+                bytes[length++] = (byte) ((value & 0x7f) | 0x80);
+                value >>>= 7;
+            }
+            bytes[length++] = (byte) value;
+        }
+
+        void putLong(long value) {
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                bytes[length++] = (byte) (value >>> shift);
+            }
+        }
+    }
+
+    /**
+     * Exports a run of 3 player GreedyBot games and prints how fast and how small it was
+     * @param args file to export to, number of games, and seed, defaults to unus.col, 100000 games, seed 1
+     */
+    public static void main(String[] args) throws IOException {
+        Path path = Path.of(args.length > 0 ? args[0] : "unus.col");
+        long numGames = args.length > 1 ? Long.parseLong(args[1]) : 100_000;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 1;
+        List<GreedyBot> seats = Utils.repeat(3, new GreedyBot());
+        long turns = 0;
+        long start = System.nanoTime();
+        try (ColumnarExporter exporter = new ColumnarExporter(path)) {
+            for (long k = 0; k < numGames; k++) {
+                Game game = new Game(seats, GameOutput.NONE, Tournament.gameSeed(seed, k), exporter);
+                game.start();
+                turns += game.getResult().getTurns();
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long bytes = Files.size(path);
+        System.out.printf("%d games, %d turns in %.2fs, %.0f turns/sec, %.2f bytes/turn including game rows%n",
+                numGames, turns, seconds, turns / seconds, (double) bytes / turns);
+    }
+}
@@ -0,0 +1,220 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Corey Walker
+ * Reads a file written by ColumnarExporter one block at a time and decodes it back into rows.
+ * The file is memory mapped a large window at a time like EventScanner does, a new window is mapped
+ * whenever the next block does not fit in what is left of the current one, so exports of any size can be read.
+ */
+public final class ColumnarReader implements Closeable {
+    private static final long WINDOW_SIZE = 256 << 20;
+    private static final int MAX_BLOCK_HEADER = 1 + 4 + 1 + 4 * 255;
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private ByteBuffer buffer;
+    private long windowStart;
+    private final String[] faces;
+    private final int[][] turnColumns = new int[ColumnarExporter.TURN_COLUMNS][];
+    private final long[][] gameColumns = new long[ColumnarExporter.GAME_COLUMNS][];
+    private long lastTurnGame;
+    private long lastGameGame;
+    private int lastTurn;
+
+    /**
+     * opens the file, maps its first window and reads its header
+     * @param path file written by ColumnarExporter
+     * @throws IOException if the file cannot be read or is not an export
+     */
+    public ColumnarReader(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.fileSize = channel.size();
+        this.buffer = ByteBuffer.allocate(0);
+        try {
+            remap(0);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        byte[] magic = new byte[ColumnarExporter.MAGIC.length];
+        buffer.get(magic);
+        if (!Arrays.equals(magic, ColumnarExporter.MAGIC)) {
+            channel.close();
+            throw new IOException(path + " is not a columnar export");
+        }
+        faces = new String[buffer.get() & 0xff];
+        for (int i = 0; i < faces.length; i++) {
+            byte[] name = new byte[buffer.get() & 0xff];
+            buffer.get(name);
+            faces[i] = new String(name, StandardCharsets.US_ASCII);
+        }
+    }
+
+    /**
+     * maps the next window of the file, starting at the first byte not read yet
+     * @param atLeast bytes the window must hold if the file has that many left
+     * @throws IOException if the file cannot be mapped
+     */
+    private void remap(long atLeast) throws IOException {
+        windowStart += buffer.position();
+        long size = Math.min(Math.max(WINDOW_SIZE, atLeast), fileSize - windowStart);
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, size);
+    }
+
+    /**
+     * getter for the name of a face in the dictionary
+     * @param face code of the face
+     * @return its name
+     */
+    public String face(int face) {
+        return faces[face];
+    }
+
+    /**
+     * Receives the rows of a decoded block, column by column,
+     * column i of the arrays is the i-th column listed in ColumnarExporter
+     */
+    public interface BlockVisitor {
+        default void turns(int rows, long[] games, int[][] columns) {}
+        default void games(int rows, long[][] columns) {}
+    }
+
+    /**
+     * This function does the following:
+     * - Maps the next window if the block header or the block is not all in the current one
+     * - Decodes the next block, undoing the deltas
+     * - Gives it to the visitor
+     * @param visitor what to give the block to
+     * @return false once there are no blocks left
+     * @throws IOException if the file cannot be mapped
+     */
+    public boolean next(BlockVisitor visitor) throws IOException {
+        if (buffer.remaining() < MAX_BLOCK_HEADER && windowStart + buffer.limit() < fileSize) {
+            remap(MAX_BLOCK_HEADER);
+        }
+        if (!buffer.hasRemaining()) { return false; }
+        int blockStart = buffer.position();
+        byte type = buffer.get();
+        int rows = buffer.getInt();
+        int[] lengths = new int[buffer.get() & 0xff];
+        int headerSize = 1 + 4 + 1 + 4 * lengths.length;
+        long blockSize = headerSize;
+        for (int i = 0; i < lengths.length; i++) {
+            lengths[i] = buffer.getInt();
+            blockSize += lengths[i];
+        }
+        if (buffer.limit() - blockStart < blockSize) {
+            buffer.position(blockStart);
+            remap(blockSize);
+            buffer.position(headerSize);
+        }
+        if (type == ColumnarExporter.TURNS) {
+            long[] games = new long[rows];
+            for (int c = 0; c < lengths.length; c++) {
+                int[] column = column(turnColumns, c, rows);
+                int end = buffer.position() + lengths[c];
+                for (int r = 0; r < rows; r++) {
+                    column[r] = c == 3 || c == 4 || c == 7 ? buffer.get() & 0xff : readVarint();
+                }
+                buffer.position(end);
+            }
+            for (int r = 0; r < rows; r++) {
+                lastTurnGame += turnColumns[0][r];
+                games[r] = lastTurnGame;
+                int delta = turnColumns[1][r];
+                lastTurn += (delta >>> 1) ^ -(delta & 1);
+                turnColumns[1][r] = lastTurn;
+            }
+            visitor.turns(rows, games, turnColumns);
+        } else if (type == ColumnarExporter.GAMES) {
+            for (int c = 0; c < lengths.length; c++) {
+                long[] column = column(gameColumns, c, rows);
+                int end = buffer.position() + lengths[c];
+                for (int r = 0; r < rows; r++) {
+                    column[r] = c == 1 ? buffer.getLong() : readVarint();
+                }
+                buffer.position(end);
+            }
+            for (int r = 0; r < rows; r++) {
+                lastGameGame += gameColumns[0][r];
+                gameColumns[0][r] = lastGameGame;
+            }
+            visitor.games(rows, gameColumns);
+        } else {
+            throw new IOException("unknown block type " + type + " at byte " + (windowStart + blockStart));
+        }
+        return true;
+    }
+
+    private static int[] column(int[][] columns, int c, int rows) {
+        if (columns[c] == null || columns[c].length < rows) {
+            columns[c] = new int[rows];
+        }
+        return columns[c];
+    }
+
+    private static long[] column(long[][] columns, int c, int rows) {
+        if (columns[c] == null || columns[c].length < rows) {
+            columns[c] = new long[rows];
+        }
+        return columns[c];
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private int readVarint() {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7f) << shift;
+            if (b >= 0) { return value; }
+        }
+    }
+
+    /**
+     * Prints the turns or games of an export as CSV
+     * @param args file, and "turns" or "games", defaults to unus.col and games
+     */
+    public static void main(String[] args) throws IOException {
+        boolean turns = args.length > 1 && args[1].equals("turns");
+        PrintStream out = System.out;
+        out.println(turns ? "game,turn,seat,top,played,hand,drawn,skips,reverse,penalty"
+                : "game,seed,players,decks,winner,turns,reshuffles,drawn");
+        try (ColumnarReader reader = new ColumnarReader(Path.of(args.length > 0 ? args[0] : "unus.col"))) {
+            BlockVisitor visitor = new BlockVisitor() {
+                @Override
+                public void turns(int rows, long[] games, int[][] c) {
+                    if (!turns) { return; }
+                    for (int r = 0; r < rows; r++) {
+                        out.println(games[r] + "," + c[1][r] + "," + c[2][r] + "," + reader.face(c[3][r]) + ","
+                                + reader.face(c[4][r]) + "," + c[5][r] + "," + c[6][r] + "," + (c[7][r] >>> 1) + ","
+                                + (c[7][r] & ColumnarExporter.ACTION_REVERSE) + "," + c[8][r]);
+                    }
+                }
+
+                @Override
+                public void games(int rows, long[][] c) {
+                    if (turns) { return; }
+                    for (int r = 0; r < rows; r++) {
+                        out.println(c[0][r] + "," + c[1][r] + "," + c[2][r] + "," + c[3][r] + "," + c[4][r] + ","
+                                + c[5][r] + "," + c[6][r] + "," + c[7][r]);
+                    }
+                }
+            };
+            while (reader.next(visitor)) {
+                // keep reading
+            }
+        }
+    }
+}
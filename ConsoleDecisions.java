@@ -0,0 +1,63 @@
+/**
+ * Corey Walker
+ * DecisionProvider for a person sitting at the console.
+ * Every question is asked through Game::interact and the answer is parsed here,
+ * answers that are not numbers are asked again before returning to the game.
+ */
+public final class ConsoleDecisions implements DecisionProvider {
+
+    /**
+     * Asks the user "Which card would you like to play?" until they give a valid int.
+     * If they do not, print: "$cardNumStr is not a valid integer, please try again."
+     * @param game the game currently being played
+     * @param hand the hand of the user whose turn it is
+     * @return int index the user typed in
+     */
+    @Override
+    public int chooseCard(Game game, Hand hand) {
+        while (true) {
+            String userInput = game.interact("Which card would you like to play?");
+            try {
+                return Integer.parseInt(userInput);
+            } catch (NumberFormatException e) {
+                game.getOutput().println(userInput + " is not a valid integer, please try again.");
+            }
+        }
+    }
+
+    /**
+     * This function does the following:
+     * - Prompts the user who they would like to skip with the following message:
+     *   "Who would you like to skip? (n)ext or (s)pecific user?"
+     * - If the answer is "n" then the index of the next player is returned
+     * - If the answer is "s" then the user is prompted with the following prompt:
+     *   "Please choose a player from 0 to $lastPlayer other than $currentPlayer"
+     *   the prompt is the same length however many players there are
+     *   - If they give an index that is not a number then output the following message and loop again:
+     *     "$n not an int, please try again."
+     * - Otherwise output the following message and loop again:
+     *   "$answer is not a recognized command, please try again."
+     * @param game the game currently being played
+     * @return int index of the player the user wants to skip
+     */
+    @Override
+    public int chooseSkip(Game game) {
+        UnusIterator<Player> players = game.getPlayers();
+        while (true) {
+            String userInput = game.interact("Who would you like to skip? (n)ext or (s)pecific user?");
+            if (userInput.equals("n")) {
+                return Math.floorMod(players.getCurIndex() + players.getDir(), game.getNumPlayers());
+            } else if (userInput.equals("s")) {
+                userInput = game.interact("Please choose a player from 0 to " + (game.getNumPlayers() - 1)
+                        + " other than " + players.getCurIndex());
+                try {
+                    return Integer.parseInt(userInput);
+                } catch (NumberFormatException e) {
+                    game.getOutput().println(userInput + " not an int, please try again.");
+                }
+            } else {
+                game.getOutput().println(userInput + " is not a recognized command, please try again.");
+            }
+        }
+    }
+}
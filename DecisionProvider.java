@@ -0,0 +1,25 @@
+/**
+ * Corey Walker
+ * A DecisionProvider answers the questions the game asks a player during their turn:
+ * - which card in their hand they would like to play
+ * - which player they would like to skip after playing a Skip
+ * The console game uses ConsoleDecisions, headless games plug in a bot instead.
+ * Answers are validated by the caller, an invalid answer simply gets asked again.
+ */
+public interface DecisionProvider {
+
+    /**
+     * asks which card the player would like to play
+     * @param game the game currently being played
+     * @param hand the hand of the player whose turn it is
+     * @return int index of the chosen card in hand
+     */
+    int chooseCard(Game game, Hand hand);
+
+    /**
+     * asks which player should be skipped
+     * @param game the game currently being played
+     * @return int index of the player to skip
+     */
+    int chooseSkip(Game game);
+}
@@ -1,28 +1,119 @@
-
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
 /**
  * Corey Walker
- * A Deck has a list of 108 Unus cards and can be
+ * A Deck has an array of Unus cards, 108 for every standard deck in it, and can be
  * - shuffled
  * - drawn from
  * - added to
+ * The top of the deck is the end of the array, so drawing just moves the size down by one.
+ * Every Deck shuffles with its own random generator, so two decks given
+ * generators with the same seed are shuffled exactly the same way.
+ * A lazy Deck never shuffles, every draw instead swaps a random remaining card to the top
+ * and takes it, one step of a Fisher-Yates shuffle at a time. Each draw is just as random,
+ * but shuffling costs only as much as the cards actually drawn and adding cards costs only the copy.
  */
 
 public final class Deck {
-    private final List<Card> cards;
+    private Card[] cards;
+    private int size;
+    private final RandomGenerator rng;
+    private final Runnable refill;
+    private final boolean lazy;
+    private long gameSeed;
 
     /**
      * constructor for the Deck
-     * adds the list of cards to the deck and then shuffles it
+     * adds the list of cards to the deck and then shuffles it with a randomly seeded generator
      * @param cards List of type Card
      */
     public Deck(List<Card> cards) {
-        this.cards = cards;
+        this(cards, new SplittableRandom(), () -> {});
+    }
+
+    /**
+     * constructor for the Deck
+     * adds the list of cards to the deck and then shuffles it
+     * @param cards List of type Card
+     * @param rng random generator used for every shuffle of this deck
+     * @param refill called by draw when the deck runs out, it should add more cards if there are any
+     */
+    public Deck(List<Card> cards, RandomGenerator rng, Runnable refill) {
+        this.cards = cards.toArray(new Card[0]);
+        this.size = this.cards.length;
+        this.rng = rng;
+        this.refill = refill;
+        this.lazy = false;
+        shuffleDeck();
+    }
+
+    /**
+     * constructor for a Deck made straight from CardCodes, using the shared Card of each code
+     * so a deck of any size is one array fill, then it is shuffled
+     * @param faces CardCode of every card in the deck
+     * @param rng random generator used for every shuffle of this deck
+     * @param refill called by draw when the deck runs out, it should add more cards if there are any
+     */
+    public Deck(byte[] faces, RandomGenerator rng, Runnable refill) {
+        this(faces, rng, refill, false);
+    }
+
+    /**
+     * constructor for a Deck made straight from CardCodes that is either shuffled now,
+     * or lazy and never shuffled, picking a random card on every draw instead
+     * @param faces CardCode of every card in the deck
+     * @param rng random generator used for every shuffle or draw of this deck
+     * @param refill called by draw when the deck runs out, it should add more cards if there are any
+     * @param lazy true to pick a random card on every draw instead of shuffling
+     */
+    public Deck(byte[] faces, RandomGenerator rng, Runnable refill, boolean lazy) {
+        this.cards = new Card[faces.length];
+        for (int i = 0; i < faces.length; i++) {
+            cards[i] = CardCode.toCard(faces[i]);
+        }
+        this.size = faces.length;
+        this.rng = rng;
+        this.refill = refill;
+        this.lazy = lazy;
         shuffleDeck();
     }
 
+    /**
+     * setter for the seed of the game the deck belongs to, it only tags the deck's GameEvents
+     * @param gameSeed seed of the game, see Game::getSeed
+     */
+    public void setGameSeed(long gameSeed) {
+        this.gameSeed = gameSeed;
+    }
+
+    /**
+     * getter for whether the deck is lazy
+     * @return true if every draw picks a random card instead of the deck being shuffled
+     */
+    public boolean isLazy() {
+        return lazy;
+    }
+
+    /**
+     * takes the top card off the deck, which must not be empty.
+     * A lazy deck first swaps a random remaining card to the top.
+     * @return Card that was on top
+     */
+    private Card takeTop() {
+        if (lazy) {
+            int j = rng.nextInt(size);
+            Card temp = cards[size - 1];
+            cards[size - 1] = cards[j];
+            cards[j] = temp;
+        }
+        Card toDraw = cards[--size];
+        cards[size] = null;
+        return toDraw;
+    }
+
     /**
      * Exception for when the Deck is Empty
      */
@@ -32,26 +123,162 @@ public final class Deck {
      * This function does the following:
      * - Checks if cards is empty
      *   - If it is then throw a new EmptyDeckException
-     *   - If not then return and remove the first card in cards
+     *   - If not then return and remove the top card
      * @return The top card from the deck
      * @throws EmptyDeckException when the deck is empty.
      */
     public Card drawCard() throws EmptyDeckException {
-        if (cards.isEmpty()){
+        if (size == 0){
             throw new EmptyDeckException();
         } else {
-            Card toDraw = cards.get(0);
-            cards.remove(toDraw);
-            return toDraw;
+            return takeTop();
+        }
+
+    }
+
+    /**
+     * same as drawCard without the exception, for callers that check the size anyway
+     * @return The top card from the deck, null if the deck is empty
+     */
+    public Card pollCard() {
+        return size == 0 ? null : takeTop();
+    }
+
+    /**
+     * Draws up to num cards into a hand.
+     * When the deck runs out the refill is called once, if that adds nothing
+     * then every card is already in someone's hand and fewer cards are drawn.
+     * @param num number of cards to draw
+     * @param into hand the cards are added to
+     * @return int number of cards actually drawn
+     */
+    public int draw(int num, Hand into) {
+        int drawn = 0;
+        while (drawn < num) {
+            if (size == 0) {
+                refill.run();
+                if (size == 0) { break; }
+            }
+            into.addCard(takeTop());
+            drawn++;
         }
+        return drawn;
+    }
 
+    /**
+     * getter for the number of cards left in the deck
+     * @return int number of cards that can still be drawn
+     */
+    public int numCardsRemaining() {
+        return size;
     }
 
     /**
-     * shuffles the Deck
+     * copies the CardCode of every card, bottom of the deck first
+     * @param into array to copy into
+     * @param offset where in the array to start
+     * @return offset just past the last face copied
+     */
+    public int copyFaces(byte[] into, int offset) {
+        for (int i = 0; i < size; i++) {
+            into[offset++] = cards[i].getFace();
+        }
+        return offset;
+    }
+
+    /**
+     * replaces the deck with the cards copied by copyFaces, without shuffling
+     * @param from array to copy from
+     * @param offset where in the array to start
+     * @param count number of cards in the deck
+     * @return offset just past the last face copied
+     */
+    public int restoreFaces(byte[] from, int offset, int count) {
+        if (count > cards.length) {
+            cards = new Card[count];
+        }
+        for (int i = 0; i < count; i++) {
+            cards[i] = CardCode.toCard(from[offset++]);
+        }
+        for (int i = count; i < size; i++) {
+            cards[i] = null;
+        }
+        size = count;
+        return offset;
+    }
+
+    /**
+     * shuffles the Deck with a Fisher-Yates shuffle using this deck's generator,
+     * a lazy deck does nothing since every draw is already random
      */
     public void shuffleDeck() {
-        Collections.shuffle(this.cards);
+        if (lazy) { return; }
+        GameEvents.ShuffleDeck event = new GameEvents.ShuffleDeck();
+        long start = Metrics.ENABLED ? System.nanoTime() : 0;
+        event.begin();
+        for (int i = size - 1; i > 0; i--) {
+            int j = rng.nextInt(i + 1);
+            Card temp = cards[i];
+            cards[i] = cards[j];
+            cards[j] = temp;
+        }
+        event.end();
+        if (Metrics.ENABLED) {
+            Metrics.SHUFFLE_DECK.record(System.nanoTime() - start, size);
+        }
+        if (event.shouldCommit()) {
+            event.seed = gameSeed;
+            event.cards = size;
+            event.commit();
+        }
+    }
+
+    /**
+     * Shuffles count cards into the deck without shuffling the cards already in it.
+     * Each incoming card goes on the end and then swaps with a random card at or before it,
+     * which is the inside-out Fisher-Yates shuffle, so if the deck was in a random order
+     * it still is and the cost is only the number of incoming cards.
+     * A lazy deck only copies the cards in.
+     * @param from array holding the incoming cards
+     * @param offset index of the first incoming card
+     * @param count number of incoming cards
+     */
+    public void shuffleIn(Card[] from, int offset, int count) {
+        if (size + count > cards.length) {
+            cards = Arrays.copyOf(cards, Math.max(size + count, cards.length * 2));
+        }
+        System.arraycopy(from, offset, cards, size, count);
+        if (lazy) {
+            size += count;
+            return;
+        }
+        for (int end = size + count; size < end; size++) {
+            int j = rng.nextInt(size + 1);
+            Card temp = cards[size];
+            cards[size] = cards[j];
+            cards[j] = temp;
+        }
+    }
+
+    /**
+     * The same inside-out shuffle as shuffleIn, for decks kept as CardCode bytes like FastGame's
+     * @param cards array holding the deck, with room for count more cards
+     * @param size number of cards in the deck
+     * @param from array holding the incoming cards
+     * @param offset index of the first incoming card
+     * @param count number of incoming cards
+     * @param rng random generator picking where each card goes
+     * @return the new size of the deck
+     */
+    static int shuffleIn(byte[] cards, int size, byte[] from, int offset, int count, RandomGenerator rng) {
+        System.arraycopy(from, offset, cards, size, count);
+        for (int end = size + count; size < end; size++) {
+            int j = rng.nextInt(size + 1);
+            byte temp = cards[size];
+            cards[size] = cards[j];
+            cards[j] = temp;
+        }
+        return size;
     }
 
     /**
@@ -59,7 +286,12 @@ public final class Deck {
      * @param cards Collection of type Card
      */
     public void addCards(Collection<Card> cards) {
-        this.cards.addAll(cards);
+        if (size + cards.size() > this.cards.length) {
+            this.cards = Arrays.copyOf(this.cards, Math.max(size + cards.size(), this.cards.length * 2));
+        }
+        for (Card card : cards) {
+            this.cards[size++] = card;
+        }
         shuffleDeck();
     }
 }
@@ -0,0 +1,465 @@
+import java.io.Flushable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Corey Walker
+ * GameOutput that keeps what the game has printed as a frame and only sends viewers what changed.
+ * The frame is made of:
+ * - the play area, a label and the top card
+ * - a hand for every label a hand has been printed under, so "Player 1 Hand:" always has the same rows
+ * - the messages printed since the last flush, any other line
+ * A line printed just before a card or a hand is its label.
+ * When flushed, every viewer is sent the changes since the last frame it was sent:
+ * - terminals get ANSI cursor moves that rewrite only the changed cards, a played card is deleted
+ *   in place, so a turn costs about the same however big the hands are
+ * - spectators get a line per change, see Viewer.spectator
+ * Viewers joining in the middle of a game, or whose last send failed, are sent the whole frame instead,
+ * on the next flush even if nothing changed.
+ * Printing the same hand or top card again, after an invalid answer for example, sends nothing to viewers
+ * that already have the frame.
+ * Viewers can be added and removed from any thread, the game's output is only used by the game's thread.
+ */
+public final class DeltaRenderer implements GameOutput {
+    private static final String CSI = "\u001b[";
+    private static final String[] TOKENS = new String[CardCode.NUM_FACES + 1];
+    // rows of the play area, a label and up to 3 rows of card
+    private static final int TOP_ROWS = 4;
+    // rows of a hand, a label, 3 rows of cards and a row of indexes
+    private static final int HAND_ROWS = 5;
+
+    static {
+        for (int face = 0; face <= CardCode.NUM_FACES; face++) {
+            Card card = CardCode.toCard(face);
+            TOKENS[face] = face == CardCode.NONE ? "none" : card.getCardColor() + card.strRep();
+        }
+    }
+
+    private final List<Viewer> viewers = new CopyOnWriteArrayList<>();
+    private String pending;
+    private String topLabel = "";
+    private int top = CardCode.NONE;
+    private boolean topChanged;
+    private final List<Region> regions = new ArrayList<>();
+    private final List<String> messages = new ArrayList<>();
+    private int version;
+
+    /**
+     * constructor for a renderer
+     * @param viewers viewers to send frames to, more can be added later
+     */
+    public DeltaRenderer(Viewer... viewers) {
+        for (Viewer viewer : viewers) {
+            addViewer(viewer);
+        }
+    }
+
+    /**
+     * adds a viewer, it is sent the whole frame on the next flush
+     * @param viewer viewer to add
+     */
+    public void addViewer(Viewer viewer) {
+        viewer.version = -1;
+        viewers.add(viewer);
+    }
+
+    /**
+     * removes a viewer, nothing more is sent to it
+     * @param viewer viewer to remove
+     */
+    public void removeViewer(Viewer viewer) {
+        viewers.remove(viewer);
+    }
+
+    @Override
+    public void println(Object line) {
+        if (line instanceof Card card) {
+            int face = card.getFace();
+            String label = takeLabel();
+            if (face != top || !label.equals(topLabel)) {
+                top = face;
+                topLabel = label;
+                topChanged = true;
+            }
+        } else if (line instanceof Hand hand) {
+            region(takeLabel()).set(hand);
+        } else {
+            if (pending != null) {
+                addMessage(pending);
+            }
+            pending = String.valueOf(line);
+        }
+    }
+
+    private String takeLabel() {
+        String label = pending == null ? "" : pending.strip();
+        pending = null;
+        return label;
+    }
+
+    private void addMessage(String text) {
+        messages.addAll(Arrays.asList(text.split("\n")));
+    }
+
+    private Region region(String label) {
+        for (Region region : regions) {
+            if (region.label.equals(label)) { return region; }
+        }
+        Region region = new Region(label);
+        regions.add(region);
+        return region;
+    }
+
+    /**
+     * This function does the following:
+     * - Ends the frame, anything still waiting to be a label is a message
+     * - Sends every viewer that saw the last frame the changes, and every other viewer the whole frame,
+     *   each kind of text is built once however many viewers there are
+     * - If nothing changed since the last frame, only viewers that did not see it are sent anything,
+     *   the whole last frame again, so a viewer added between turns is not left with a blank screen
+     * - Makes this frame the last frame
+     */
+    @Override
+    public void flush() {
+        if (pending != null) {
+            addMessage(pending);
+            pending = null;
+        }
+        boolean changed = changed();
+        int frameVersion = changed ? version + 1 : version;
+        String[] texts = new String[4];
+        for (Viewer viewer : viewers) {
+            boolean full = viewer.version != version;
+            if (!changed && !full) { continue; }
+            int kind = (viewer.terminal ? 0 : 2) + (full ? 1 : 0);
+            if (texts[kind] == null) {
+                StringBuilder sb = new StringBuilder();
+                if (viewer.terminal) {
+                    terminal(sb, full);
+                } else {
+                    spectator(sb, full, frameVersion);
+                }
+                texts[kind] = sb.toString();
+            }
+            viewer.send(texts[kind], frameVersion);
+        }
+        if (!changed) { return; }
+        version++;
+        topChanged = false;
+        for (Region region : regions) {
+            region.commit();
+        }
+        messages.clear();
+    }
+
+    private boolean changed() {
+        if (topChanged || !messages.isEmpty()) { return true; }
+        for (Region region : regions) {
+            if (region.changed()) { return true; }
+        }
+        return false;
+    }
+
+    /**
+     * ANSI text for the frame, the play area is at the top of the screen, then every hand,
+     * then the messages, which leave the cursor just under them for whoever is typing
+     */
+    private void terminal(StringBuilder sb, boolean full) {
+        if (full) {
+            sb.append(CSI).append('H').append(CSI).append("2J");
+        }
+        if (full || topChanged) {
+            moveTo(sb, 1, 1).append(topLabel).append(CSI).append('K');
+            List<String> lines = CardRenderer.lines(top);
+            for (int row = 0; row < TOP_ROWS - 1; row++) {
+                moveTo(sb, row + 2, 1);
+                if (row < lines.size()) {
+                    sb.append(lines.get(row));
+                }
+                sb.append(CSI).append('K');
+            }
+        }
+        for (int r = 0; r < regions.size(); r++) {
+            Region region = regions.get(r);
+            int base = TOP_ROWS + r * HAND_ROWS + 1;
+            if (full || region.shownSize < 0) {
+                moveTo(sb, base, 1).append(region.label).append(CSI).append('K');
+                for (int row = 1; row < HAND_ROWS; row++) {
+                    moveTo(sb, base + row, 1).append(CSI).append('K');
+                }
+                terminalAdd(sb, base, region, 0);
+            } else {
+                terminalDiff(sb, base, region);
+            }
+        }
+        moveTo(sb, TOP_ROWS + regions.size() * HAND_ROWS + 1, 1);
+        for (String message : messages) {
+            sb.append(message).append(CSI).append("K\n");
+        }
+        sb.append(CSI).append('J');
+    }
+
+    /**
+     * rewrites the cards of a hand that changed, deleting a single card shifts the cards after it left
+     */
+    private static void terminalDiff(StringBuilder sb, int base, Region region) {
+        int from = region.commonPrefix();
+        if (region.isDeleteAt(from)) {
+            for (int row = 1; row < HAND_ROWS - 1; row++) {
+                moveTo(sb, base + row, cardColumn(from)).append(CSI).append(CardRenderer.CARD_WIDTH).append('P');
+            }
+            moveTo(sb, base + HAND_ROWS - 1, indexColumn(region.size)).append(CSI).append('K');
+            return;
+        }
+        int common = Math.min(region.shownSize, region.size);
+        for (int i = from; i < common; i++) {
+            if (region.shown[i] != region.faces[i]) {
+                for (int row = 1; row < HAND_ROWS - 1; row++) {
+                    moveTo(sb, base + row, cardColumn(i)).append(CardRenderer.lines(region.faces[i]).get(row - 1));
+                }
+            }
+        }
+        if (region.size < region.shownSize) {
+            for (int row = 1; row < HAND_ROWS - 1; row++) {
+                moveTo(sb, base + row, cardColumn(region.size)).append(CSI).append('K');
+            }
+            moveTo(sb, base + HAND_ROWS - 1, indexColumn(region.size)).append(CSI).append('K');
+        } else if (region.size > region.shownSize) {
+            terminalAdd(sb, base, region, region.shownSize);
+        }
+    }
+
+    /**
+     * writes the cards of a hand from index from to the end, with their indexes underneath
+     */
+    private static void terminalAdd(StringBuilder sb, int base, Region region, int from) {
+        for (int row = 1; row < HAND_ROWS - 1; row++) {
+            moveTo(sb, base + row, cardColumn(from));
+            for (int i = from; i < region.size; i++) {
+                sb.append(CardRenderer.lines(region.faces[i]).get(row - 1)).append(' ');
+            }
+        }
+        moveTo(sb, base + HAND_ROWS - 1, indexColumn(from));
+        for (int i = from; i < region.size; i++) {
+            sb.append("    ").append(i).append("     ");
+        }
+    }
+
+    private static StringBuilder moveTo(StringBuilder sb, int row, int column) {
+        return sb.append(CSI).append(row).append(';').append(column).append('H');
+    }
+
+    private static int cardColumn(int index) {
+        return index * CardRenderer.CARD_WIDTH + 1;
+    }
+
+    /**
+     * column of an index under a hand, each is written as "    " + index + "     " like CardRenderer does
+     */
+    private static int indexColumn(int index) {
+        int column = index * CardRenderer.CARD_WIDTH + 1;
+        for (int power = 10; power < index; power *= 10) {
+            column += index - power;
+        }
+        return column;
+    }
+
+    /**
+     * spectator lines for the frame, see Viewer.spectator
+     */
+    private void spectator(StringBuilder sb, boolean full, int frameVersion) {
+        if (full) {
+            sb.append("frame\n");
+        }
+        if (full || topChanged) {
+            sb.append("top ").append(TOKENS[top]).append('\n');
+        }
+        for (int r = 0; r < regions.size(); r++) {
+            Region region = regions.get(r);
+            if (full || region.shownSize < 0) {
+                sb.append("hand ").append(r).append(' ').append(region.label).append('\n');
+                spectatorAdd(sb, r, region, 0);
+                continue;
+            }
+            int from = region.commonPrefix();
+            if (region.isDeleteAt(from)) {
+                sb.append("del ").append(r).append(' ').append(from).append('\n');
+                continue;
+            }
+            int common = Math.min(region.shownSize, region.size);
+            for (int i = from; i < common; i++) {
+                if (region.shown[i] != region.faces[i]) {
+                    sb.append("set ").append(r).append(' ').append(i).append(' ')
+                            .append(TOKENS[region.faces[i]]).append('\n');
+                }
+            }
+            if (region.size < region.shownSize) {
+                sb.append("cut ").append(r).append(' ').append(region.size).append('\n');
+            } else if (region.size > region.shownSize) {
+                spectatorAdd(sb, r, region, region.shownSize);
+            }
+        }
+        for (String message : messages) {
+            sb.append("msg ").append(message).append('\n');
+        }
+        sb.append("end ").append(frameVersion).append('\n');
+    }
+
+    private static void spectatorAdd(StringBuilder sb, int r, Region region, int from) {
+        if (from == region.size) { return; }
+        sb.append("add ").append(r);
+        for (int i = from; i < region.size; i++) {
+            sb.append(' ').append(TOKENS[region.faces[i]]);
+        }
+        sb.append('\n');
+    }
+
+    /**
+     * A hand in the frame, with the faces in it now and the faces viewers saw in the last frame
+     */
+    private static final class Region {
+        private final String label;
+        private byte[] faces = new byte[16];
+        private int size;
+        private byte[] shown = new byte[16];
+        // -1 until the region has been in a frame
+        private int shownSize = -1;
+
+        Region(String label) {
+            this.label = label;
+        }
+
+        void set(Hand hand) {
+            size = hand.numCardsRemaining();
+            if (faces.length < size) {
+                faces = new byte[Math.max(size, faces.length * 2)];
+            }
+            hand.copyFaces(faces, 0);
+        }
+
+        boolean changed() {
+            return shownSize != size || !Arrays.equals(faces, 0, size, shown, 0, size);
+        }
+
+        /**
+         * number of cards at the start of the hand that are the same as in the last frame
+         */
+        int commonPrefix() {
+            int common = Math.min(shownSize, size);
+            int i = 0;
+            while (i < common && faces[i] == shown[i]) {
+                i++;
+            }
+            return i;
+        }
+
+        /**
+         * true if the hand is the last frame's hand with the card at index taken out
+         */
+        boolean isDeleteAt(int index) {
+            return size == shownSize - 1 && index < shownSize
+                    && Arrays.equals(faces, index, size, shown, index + 1, shownSize);
+        }
+
+        void commit() {
+            if (shown.length < size) {
+                shown = new byte[faces.length];
+            }
+            System.arraycopy(faces, 0, shown, 0, size);
+            shownSize = size;
+        }
+    }
+
+    /**
+     * Someone watching the game, and the version of the last frame they were sent
+     */
+    public static final class Viewer {
+        private final Appendable target;
+        private final boolean terminal;
+        private volatile int version = -1;
+
+        private Viewer(Appendable target, boolean terminal) {
+            this.target = target;
+            this.terminal = terminal;
+        }
+
+        /**
+         * a viewer that understands ANSI escape codes, the frame is drawn from the top left of the screen
+         * @param target where to write, flushed after every frame if it is Flushable
+         * @return Viewer for a terminal
+         */
+        public static Viewer terminal(Appendable target) {
+            return new Viewer(target, true);
+        }
+
+        /**
+         * A viewer sent a line for every change, each frame ends with "end $version":
+         * - "frame" starts a whole frame, forget everything before it
+         * - "top $card" the top card
+         * - "hand $r $label" hand r, it starts out empty
+         * - "add $r $card..." cards put on the end of hand r
+         * - "del $r $i" the card at index i of hand r was taken out, the cards after it move down one
+         * - "set $r $i $card" the card at index i of hand r is now card
+         * - "cut $r $n" hand r now only has its first n cards
+         * - "msg $text" a message, messages only last for the frame they are in
+         * Cards are their color and their face, like R7, GD+2 or WW, and none when the play area is empty.
+         * @param target where to write, flushed after every frame if it is Flushable
+         * @return Viewer for a spectator
+         */
+        public static Viewer spectator(Appendable target) {
+            return new Viewer(target, false);
+        }
+
+        /**
+         * sends a frame, if it cannot be sent the viewer is sent the whole frame next time
+         */
+        private void send(String text, int frameVersion) {
+            try {
+                target.append(text);
+                if (target instanceof Flushable flushable) {
+                    flushable.flush();
+                }
+                version = frameVersion;
+            } catch (IOException e) {
+                version = -1;
+            }
+        }
+    }
+
+    /**
+     * Plays a game of GreedyBots watched by a terminal and a spectator, without printing them,
+     * and prints how many characters each was sent per turn against sending every turn in full
+     * @param args number of players and seed, defaults to 3 players and seed 1
+     */
+    public static void main(String[] args) {
+        int numPlayers = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 1;
+        StringBuilder terminal = new StringBuilder();
+        StringBuilder spectator = new StringBuilder();
+        StringBuilder plain = new StringBuilder();
+        DeltaRenderer renderer = new DeltaRenderer(Viewer.terminal(terminal), Viewer.spectator(spectator));
+        BufferedOutput buffered = new BufferedOutput(plain);
+        GameOutput both = new GameOutput() {
+            @Override
+            public void println(Object line) {
+                renderer.println(line);
+                buffered.println(line);
+            }
+
+            @Override
+            public void flush() {
+                renderer.flush();
+                buffered.flush();
+            }
+        };
+        Game game = new Game(Utils.repeat(numPlayers, new GreedyBot()), both, seed);
+        game.start();
+        int turns = game.getResult().getTurns();
+        System.out.printf("%d turns, characters per turn: full text %.0f, terminal %.0f, spectator %.0f%n",
+                turns, (double) plain.length() / turns, (double) terminal.length() / turns,
+                (double) spectator.length() / turns);
+    }
+}
@@ -8,7 +8,7 @@ public class DrawN extends Card {
     private final int n;
 
     public DrawN(Color cardColor, int n) {
-        super(cardColor);
+        super(cardColor, CardCode.draw(cardColor, n));
         this.n = n;
     }
 
@@ -26,7 +26,7 @@ public class DrawN extends Card {
      */
     @Override
     public void doAction(Game game) {
-       game.getPlayers().peekNext().drawCards(n);
+        game.drawPenalty(game.getPlayers().peekNext(), n);
     }
 
     /**
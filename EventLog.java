@@ -0,0 +1,141 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Corey Walker
+ * GameListener that appends every event of every game it is given to a compact binary file.
+ * Each event is one record, a type byte followed by a few bytes of payload:
+ * - START     numPlayers (short), numDecks (short), seed (long)
+ * - DEAL      seat (short), face (byte)
+ * - DRAW      seat (short), face (byte)
+ * - PLAY      seat (short), index in hand (short), face (byte)
+ * - SKIP      seat (short), target (short), depth (short)
+ * - REVERSE   seat (short)
+ * - RESHUFFLE cards returned (int)
+ * - TURN_END  seat (short), turn (int)
+ * - WIN       seat (short), turns (int)
+ * - PENALTY   seat (short), face (byte), a draw caused by a DrawN
+ * Records are collected in a large direct buffer and written to the file channel when it fills up,
+ * so logging costs a few buffer puts per event. Many games can be logged one after another to the
+ * same file, each one starts with a START record. One EventLog should only be used by one thread.
+ * EventScanner reads the records back and GameReplayer rebuilds games from them.
+ */
+public final class EventLog implements GameListener, Closeable {
+    public static final byte START = 1;
+    public static final byte DEAL = 2;
+    public static final byte DRAW = 3;
+    public static final byte PLAY = 4;
+    public static final byte SKIP = 5;
+    public static final byte REVERSE = 6;
+    public static final byte RESHUFFLE = 7;
+    public static final byte TURN_END = 8;
+    public static final byte WIN = 9;
+    public static final byte PENALTY = 10;
+
+    /** no record is longer than this many bytes */
+    public static final int MAX_RECORD = 13;
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    /**
+     * opens a log, adding to the end of the file if it already exists
+     * @param path file to log to
+     * @throws IOException if the file cannot be opened
+     */
+    public EventLog(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    /**
+     * makes sure the buffer has room for one more record, writing it out if it does not
+     * @return the buffer
+     */
+    private ByteBuffer room() {
+        if (buffer.remaining() < MAX_RECORD) {
+            flush();
+        }
+        return buffer;
+    }
+
+    @Override
+    public void onStart(int numPlayers, int numDecks, long seed) {
+        room().put(START).putShort((short) numPlayers).putShort((short) numDecks).putLong(seed);
+    }
+
+    @Override
+    public void onDeal(int seat, int face) {
+        room().put(DEAL).putShort((short) seat).put((byte) face);
+    }
+
+    @Override
+    public void onDraw(int seat, int face) {
+        room().put(DRAW).putShort((short) seat).put((byte) face);
+    }
+
+    @Override
+    public void onPenaltyDraw(int seat, int face) {
+        room().put(PENALTY).putShort((short) seat).put((byte) face);
+    }
+
+    @Override
+    public void onPlay(int seat, int index, int face) {
+        room().put(PLAY).putShort((short) seat).putShort((short) index).put((byte) face);
+    }
+
+    @Override
+    public void onSkip(int seat, int target, int depth) {
+        room().put(SKIP).putShort((short) seat).putShort((short) target).putShort((short) depth);
+    }
+
+    @Override
+    public void onReverse(int seat) {
+        room().put(REVERSE).putShort((short) seat);
+    }
+
+    @Override
+    public void onReshuffle(int cardsReturned) {
+        room().put(RESHUFFLE).putInt(cardsReturned);
+    }
+
+    @Override
+    public void onTurnEnd(int seat, int turn) {
+        room().put(TURN_END).putShort((short) seat).putInt(turn);
+    }
+
+    @Override
+    public void onWin(int seat, int turns) {
+        room().put(WIN).putShort((short) seat).putInt(turns);
+    }
+
+    /**
+     * writes every record collected so far to the file
+     */
+    public void flush() {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            // back to appending even if the write failed, keeping whatever was not written
+            buffer.compact();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        channel.close();
+    }
+}
@@ -0,0 +1,143 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Corey Walker
+ * Reads the records written by EventLog back out of a file and passes each one to a GameListener.
+ * The file is memory mapped a large window at a time, so scanning runs as fast as the disk can
+ * supply bytes, logs bigger than one mapping can hold are fine, and nothing is allocated per record.
+ * Usage: java EventScanner file, prints how many of each record the file has
+ */
+public final class EventScanner implements Closeable {
+    private static final long WINDOW_SIZE = 256 << 20;
+
+    private final FileChannel channel;
+    private final long fileSize;
+    private ByteBuffer buffer;
+    private long windowStart;
+
+    /**
+     * opens a log for reading
+     * @param path file written by EventLog
+     * @throws IOException if the file cannot be opened
+     */
+    public EventScanner(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.fileSize = channel.size();
+        this.buffer = ByteBuffer.allocate(0);
+    }
+
+    /**
+     * maps the next window of the file, starting at the first byte not read yet
+     * @throws IOException if the file cannot be mapped
+     */
+    private void remap() throws IOException {
+        windowStart += buffer.position();
+        buffer = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, Math.min(WINDOW_SIZE, fileSize - windowStart));
+    }
+
+    /**
+     * Reads one record and passes it to listener
+     * @param listener told about the record
+     * @return false if there are no more records
+     * @throws IOException if the file cannot be read
+     */
+    public boolean next(GameListener listener) throws IOException {
+        if (buffer.remaining() < EventLog.MAX_RECORD && windowStart + buffer.limit() < fileSize) {
+            remap();
+        }
+        if (!buffer.hasRemaining()) { return false; }
+
+        byte type = buffer.get();
+        switch (type) {
+            case EventLog.START:
+                listener.onStart(buffer.getShort(), buffer.getShort(), buffer.getLong());
+                break;
+            case EventLog.DEAL:
+                listener.onDeal(buffer.getShort(), buffer.get());
+                break;
+            case EventLog.DRAW:
+                listener.onDraw(buffer.getShort(), buffer.get());
+                break;
+            case EventLog.PENALTY:
+                listener.onPenaltyDraw(buffer.getShort(), buffer.get());
+                break;
+            case EventLog.PLAY:
+                listener.onPlay(buffer.getShort(), buffer.getShort(), buffer.get());
+                break;
+            case EventLog.SKIP:
+                listener.onSkip(buffer.getShort(), buffer.getShort(), buffer.getShort());
+                break;
+            case EventLog.REVERSE:
+                listener.onReverse(buffer.getShort());
+                break;
+            case EventLog.RESHUFFLE:
+                listener.onReshuffle(buffer.getInt());
+                break;
+            case EventLog.TURN_END:
+                listener.onTurnEnd(buffer.getShort(), buffer.getInt());
+                break;
+            case EventLog.WIN:
+                listener.onWin(buffer.getShort(), buffer.getInt());
+                break;
+            default:
+                throw new IOException("unknown record type " + type + " at byte " + (windowStart + buffer.position() - 1));
+        }
+        return true;
+    }
+
+    /**
+     * Passes every remaining record to listener
+     * @param listener told about every record
+     * @return long number of records read
+     * @throws IOException if the file cannot be read
+     */
+    public long scan(GameListener listener) throws IOException {
+        long records = 0;
+        while (next(listener)) {
+            records++;
+        }
+        return records;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    public static void main(String[] args) throws IOException {
+        long[] counts = new long[11];
+        GameListener counter = new GameListener() {
+            @Override public void onStart(int numPlayers, int numDecks, long seed) { counts[EventLog.START]++; }
+            @Override public void onDeal(int seat, int face) { counts[EventLog.DEAL]++; }
+            @Override public void onDraw(int seat, int face) { counts[EventLog.DRAW]++; }
+            @Override public void onPenaltyDraw(int seat, int face) { counts[EventLog.PENALTY]++; }
+            @Override public void onPlay(int seat, int index, int face) { counts[EventLog.PLAY]++; }
+            @Override public void onSkip(int seat, int target, int depth) { counts[EventLog.SKIP]++; }
+            @Override public void onReverse(int seat) { counts[EventLog.REVERSE]++; }
+            @Override public void onReshuffle(int cardsReturned) { counts[EventLog.RESHUFFLE]++; }
+            @Override public void onTurnEnd(int seat, int turn) { counts[EventLog.TURN_END]++; }
+            @Override public void onWin(int seat, int turns) { counts[EventLog.WIN]++; }
+        };
+        Path path = Path.of(args[0]);
+        long start = System.nanoTime();
+        long records;
+        try (EventScanner scanner = new EventScanner(path)) {
+            records = scanner.scan(counter);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("games %d, deals %d, draws %d, penalty draws %d, plays %d, skips %d, reverses %d, "
+                        + "reshuffles %d, turns %d, wins %d%n",
+                counts[EventLog.START], counts[EventLog.DEAL], counts[EventLog.DRAW], counts[EventLog.PENALTY],
+                counts[EventLog.PLAY],
+                counts[EventLog.SKIP], counts[EventLog.REVERSE], counts[EventLog.RESHUFFLE],
+                counts[EventLog.TURN_END], counts[EventLog.WIN]);
+        System.out.printf("%d records in %.2fs, %.0f MB/s%n",
+                records, seconds, Files.size(path) / seconds / 1e6);
+    }
+}
@@ -0,0 +1,416 @@
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Corey Walker
+ * A headless game of Unus kept entirely in primitive arrays, for simulations.
+ * - every card is a CardCode byte
+ * - the deck is a byte array drawn from the end
+ * - the play area is a byte array with the top card at the end
+ * - every hand is its own byte array that starts small and doubles when it fills up,
+ *   so a big table does not give every seat room for the whole deck, hand sizes are an int array
+ * - skips are an int array per seat and direction is +1 or -1
+ * Every player plays like GreedyBot: the first card that matches and always skip the next player,
+ * or with random play on, a random card out of the ones that match.
+ * A FastGame can also be loaded with any position, which MctsBot uses for its rollouts.
+ * A game only allocates while it is played when a hand outgrows its array,
+ * so a game that is loaded and played over and over, like MctsBot's, soon stops allocating at all.
+ */
+public final class FastGame {
+    private static final int STARTING_HAND = 5;
+    private static final int INITIAL_HAND_CAPACITY = 16;
+
+    private final int numPlayers;
+    private final SplittableRandom rng;
+    private final byte[] deck;
+    private int deckSize;
+    private final byte[] playArea;
+    private int playSize;
+    private final byte[][] hands;
+    private final int[] handSizes;
+    private final int[] skips;
+    private int curIndex;
+    private int dir = 1;
+    private boolean randomPlay;
+
+    private int turns;
+    private int cardsDrawn;
+    private int reshuffles;
+    private int winnerSeat = -1;
+
+    /**
+     * Creates, shuffles, and deals a game with as many decks as Game would use, see Game::decksFor
+     * @param numPlayers the number of players in the game
+     * @param seed seed of the game, the same seed always plays the same game
+     */
+    public FastGame(int numPlayers, long seed) {
+        this(numPlayers, seed, Game.decksFor(numPlayers));
+    }
+
+    /**
+     * Creates, shuffles, and deals a game
+     * @param numPlayers the number of players in the game
+     * @param seed seed of the game, the same seed always plays the same game
+     * @param numDecks number of standard decks shuffled together
+     */
+    public FastGame(int numPlayers, long seed, int numDecks) {
+        this(numPlayers, numDecks * CardCode.DECK_SIZE, new SplittableRandom(seed));
+        byte[] standard = CardCode.standardDeck(numDecks);
+        System.arraycopy(standard, 0, deck, 0, standard.length);
+        deckSize = standard.length;
+        shuffle(deck, deckSize);
+        for (int seat = 0; seat < numPlayers; seat++) {
+            draw(seat, STARTING_HAND);
+        }
+        // the opening deal does not count as drawing
+        this.cardsDrawn = 0;
+    }
+
+    /**
+     * Creates an empty table, use the load functions to set up a position
+     * @param numPlayers the number of players in the game
+     * @param capacity the number of cards in the whole game
+     * @param rng random generator for reshuffles and random play
+     */
+    public FastGame(int numPlayers, int capacity, SplittableRandom rng) {
+        this.numPlayers = numPlayers;
+        this.rng = rng;
+        this.deck = new byte[capacity];
+        this.playArea = new byte[capacity];
+        this.hands = new byte[numPlayers][INITIAL_HAND_CAPACITY];
+        this.handSizes = new int[numPlayers];
+        this.skips = new int[numPlayers];
+    }
+
+    /**
+     * turns random play on or off
+     * @param randomPlay true to play a random matching card instead of the first one
+     */
+    public void setRandomPlay(boolean randomPlay) {
+        this.randomPlay = randomPlay;
+    }
+
+    /**
+     * sets the deck, the last face is the top of the deck
+     * @param faces array holding the faces
+     * @param offset where the faces start
+     * @param count number of cards in the deck
+     */
+    public void loadDeck(byte[] faces, int offset, int count) {
+        System.arraycopy(faces, offset, deck, 0, count);
+        deckSize = count;
+    }
+
+    /**
+     * sets the play area, the last face is the top card
+     * @param faces array holding the faces
+     * @param offset where the faces start
+     * @param count number of cards in the play area
+     */
+    public void loadPlayArea(byte[] faces, int offset, int count) {
+        System.arraycopy(faces, offset, playArea, 0, count);
+        playSize = count;
+    }
+
+    /**
+     * sets a player's hand, in hand order
+     * @param seat index of the player
+     * @param faces array holding the faces
+     * @param offset where the faces start
+     * @param count number of cards in the hand
+     */
+    public void loadHand(int seat, byte[] faces, int offset, int count) {
+        System.arraycopy(faces, offset, handWithRoom(seat, count), 0, count);
+        handSizes[seat] = count;
+    }
+
+    /**
+     * sets whose turn it is, the direction, and the skips on every seat, and starts the counts over
+     * @param curIndex index of the current player
+     * @param dir +1 if moving forward, -1 if moving backwards
+     * @param savedSkips number of skips on every player
+     */
+    public void loadTurn(int curIndex, int dir, int[] savedSkips) {
+        this.curIndex = curIndex;
+        this.dir = dir;
+        System.arraycopy(savedSkips, 0, skips, 0, numPlayers);
+        turns = 0;
+        cardsDrawn = 0;
+        reshuffles = 0;
+        winnerSeat = -1;
+    }
+
+    /**
+     * The main game loop, plays turns until someone empties their hand
+     * @return index of the seat that won
+     */
+    public int play() {
+        return play(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Plays turns until someone empties their hand or maxTurns turns have been played
+     * @param maxTurns most turns to play
+     * @return index of the seat that won, -1 if nobody has won yet
+     */
+    public int play(int maxTurns) {
+        for (int i = 0; i < maxTurns && winnerSeat < 0; i++) {
+            takeTurn(curIndex);
+        }
+        return winnerSeat;
+    }
+
+    /**
+     * Plays a chosen card for the current player and ends their turn, the card must match the top card
+     * @param index index of the card in the current player's hand
+     * @param skipTarget seat to skip if the card is a Skip
+     * @return index of the seat that won, -1 if nobody has won yet
+     */
+    public int playMove(int index, int skipTarget) {
+        int seat = curIndex;
+        playCard(seat, index, skipTarget);
+        endTurn(seat);
+        return winnerSeat;
+    }
+
+    private void endTurn(int seat) {
+        turns++;
+        curIndex = findNextIndex(true);
+        if (handSizes[seat] == 0) {
+            winnerSeat = seat;
+        }
+    }
+
+    /**
+     * Plays one turn the same way Player::takeTurn does:
+     * - if nothing matches the top card, draw one card
+     * - if still nothing matches, the turn is passed
+     * - otherwise play the first matching card, or a random one with random play on,
+     *   skipping the next player if it is a Skip
+     * @param seat index of the player taking the turn
+     */
+    private void takeTurn(int seat) {
+        int top = getTopCard();
+        int index = choosePlayable(seat, top);
+        if (index < 0) {
+            draw(seat, 1);
+            index = choosePlayable(seat, top);
+        }
+        if (index >= 0) {
+            int target = findNextIndex(false);
+            if (target == curIndex) { target = Math.floorMod(target + dir, numPlayers); }
+            playCard(seat, index, target);
+        }
+        endTurn(seat);
+    }
+
+    /**
+     * Takes a card out of a hand, does its action, and puts it on the play area,
+     * the same order Card::play does them in
+     * @param seat index of the player
+     * @param index index of the card in their hand
+     * @param skipTarget seat to skip if the card is a Skip
+     */
+    private void playCard(int seat, int index, int skipTarget) {
+        byte[] hand = hands[seat];
+        byte face = hand[index];
+        System.arraycopy(hand, index + 1, hand, index, handSizes[seat] - index - 1);
+        handSizes[seat]--;
+
+        switch (CardCode.kind(face)) {
+            case CardCode.KIND_DRAW:
+                draw(findNextIndex(false), CardCode.value(face));
+                break;
+            case CardCode.KIND_SKIP:
+                skips[skipTarget]++;
+                break;
+            case CardCode.KIND_REVERSE:
+                dir = -dir;
+                break;
+            default:
+                break;
+        }
+        playArea[playSize++] = face;
+    }
+
+    /**
+     * picks the card a player plays
+     * @param seat index of the player
+     * @param top code of the card on top of the play area
+     * @return index in the hand, -1 if nothing matches
+     */
+    private int choosePlayable(int seat, int top) {
+        int first = firstPlayable(seat, top);
+        if (!randomPlay || first < 0) { return first; }
+        // reservoir sample one of the matching cards
+        byte[] hand = hands[seat];
+        int chosen = first;
+        int seen = 1;
+        for (int i = first + 1; i < handSizes[seat]; i++) {
+            if (CardCode.match(hand[i], top) && rng.nextInt(++seen) == 0) { chosen = i; }
+        }
+        return chosen;
+    }
+
+    /**
+     * finds the first card in a hand that can be played on top
+     * @param seat index of the player
+     * @param top code of the card on top of the play area
+     * @return index in the hand, -1 if nothing matches
+     */
+    private int firstPlayable(int seat, int top) {
+        byte[] hand = hands[seat];
+        for (int i = 0; i < handSizes[seat]; i++) {
+            if (CardCode.match(hand[i], top)) { return i; }
+        }
+        return -1;
+    }
+
+    /**
+     * Draws cards into a hand, shuffling the play area back into the deck when it runs out.
+     * If every card is already in someone's hand fewer cards are drawn.
+     * @param seat index of the player drawing
+     * @param num number of cards to draw
+     */
+    private void draw(int seat, int num) {
+        for (int i = 0; i < num; i++) {
+            if (deckSize == 0) {
+                shufflePlayAreaIntoDeck();
+                if (deckSize == 0) { return; }
+            }
+            handWithRoom(seat, handSizes[seat] + 1)[handSizes[seat]++] = deck[--deckSize];
+            cardsDrawn++;
+        }
+    }
+
+    /**
+     * getter for a hand's array, doubling it first if it cannot hold size cards
+     * @param seat index of the player
+     * @param size number of cards the hand has to hold
+     * @return the hand's array
+     */
+    private byte[] handWithRoom(int seat, int size) {
+        byte[] hand = hands[seat];
+        if (hand.length < size) {
+            hand = Arrays.copyOf(hand, Math.max(size, hand.length * 2));
+            hands[seat] = hand;
+        }
+        return hand;
+    }
+
+    /**
+     * moves every card in the play area except the top one back into the deck, shuffling only
+     * those cards in the same way Game::shufflePlayAreaIntoDeck does, see Deck::shuffleIn
+     */
+    private void shufflePlayAreaIntoDeck() {
+        if (playSize <= 1) { return; }
+        reshuffles++;
+        int moved = playSize - 1;
+        deckSize = Deck.shuffleIn(deck, deckSize, playArea, 0, moved, rng);
+        playArea[0] = playArea[moved];
+        playSize = 1;
+    }
+
+    private void shuffle(byte[] cards, int size) {
+        for (int i = size - 1; i > 0; i--) {
+            int j = rng.nextInt(i + 1);
+            byte temp = cards[i];
+            cards[i] = cards[j];
+            cards[j] = temp;
+        }
+    }
+
+    /**
+     * Same walk as UnusIterator::findNextIndex over the skips array.
+     * Tables here are small so it walks seat by seat, but when every player has skips
+     * and nothing is being used up it stops after one lap, see fewestSkips.
+     * @param decrement whether skips that are passed over are used up
+     * @return index of the next player respecting skips and reverses
+     */
+    private int findNextIndex(boolean decrement) {
+        int nextPlayer = curIndex + dir;
+        for (int walked = 0; ; walked++) {
+            if (nextPlayer < 0) { nextPlayer = numPlayers - 1; }
+            if (nextPlayer > numPlayers - 1) { nextPlayer = 0; }
+            if (skips[nextPlayer] == 0) { return nextPlayer; }
+            if (decrement) { skips[nextPlayer]--; }
+            else if (walked == numPlayers) { return fewestSkips(); }
+            nextPlayer += dir;
+        }
+    }
+
+    /**
+     * the player the walk would end on when every player has skips,
+     * the first one after the current player with the fewest
+     * @return index of that player
+     */
+    private int fewestSkips() {
+        int fewest = Integer.MAX_VALUE;
+        int found = curIndex;
+        int i = curIndex;
+        for (int n = 0; n < numPlayers; n++) {
+            i += dir;
+            if (i < 0) { i = numPlayers - 1; }
+            if (i > numPlayers - 1) { i = 0; }
+            if (skips[i] < fewest) {
+                fewest = skips[i];
+                found = i;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * getter for the top card on the play area
+     * @return code of the top card, CardCode.NONE if the play area is empty
+     */
+    public int getTopCard() {
+        return playSize == 0 ? CardCode.NONE : playArea[playSize - 1];
+    }
+
+    /**
+     * getter for whose turn it is
+     * @return int index of the current player
+     */
+    public int getCurIndex() {
+        return curIndex;
+    }
+
+    /**
+     * getter for the size of a hand
+     * @param seat index of the player
+     * @return int number of cards in their hand
+     */
+    public int getHandSize(int seat) {
+        return handSizes[seat];
+    }
+
+    /**
+     * Summarizes the game once play has returned
+     * @return GameResult with the winner's seat, number of turns, cards drawn, and reshuffles
+     */
+    public GameResult getResult() {
+        return new GameResult(winnerSeat, turns, cardsDrawn, reshuffles);
+    }
+
+    /**
+     * Plays many games in a row and prints how fast they went
+     * @param args number of games and number of players, defaults to 1000000 games of 3 players
+     */
+    public static void main(String[] args) {
+        long numGames = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000;
+        int numPlayers = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        TournamentStats stats = new TournamentStats(numPlayers);
+
+        long start = System.nanoTime();
+        for (long i = 0; i < numGames; i++) {
+            FastGame game = new FastGame(numPlayers, i);
+            game.play();
+            stats.add(game.getResult());
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println(stats);
+        System.out.printf("%.0f games/sec%n", stats.getGames() / seconds);
+    }
+}
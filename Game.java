@@ -1,48 +1,123 @@
 import java.util.*;
+import java.util.random.RandomGenerator;
 
 /**
  * Corey Walker
  * Class for the Game object
- * - has a Scanner for IO
+ * - has a Scanner for IO, only opened once someone is asked something
+ * - has an output that all game text is sent to
  * - has an UnusIterator
  * - has a number of players in the game
- * - has a deck of cards
- * - has a deque of type Card for the play area
+ * - has a lazy deck of cards made of one or more standard decks, each draw is picked by a generator
+ *   seeded from the game's seed
+ * - has an array of type Card for the play area, used as a stack with the top card at the end
+ * - keeps count of turns, cards drawn, and reshuffles so the result of a game can be reported
+ * - has a GameListener that is told about every deal, draw, play, skip, reverse, reshuffle, and win
  */
 
 public final class Game {
-    private final Scanner io;
+    private Scanner io;
+    private final GameOutput out;
     private final UnusIterator<Player> players;
     private final int numPlayers;
     private final Deck deck;
-    private final Deque<Card> playArea;
+    private final int numDecks;
+    private Card[] playArea;
+    private int playSize;
+    private final long seed;
+    private final GameRandom rng;
+    private final GameListener listener;
+    private boolean dealing;
+    private boolean penalty;
+    private int turns;
+    private int cardsDrawn;
+    private int reshuffles;
+    private int winnerSeat = -1;
+
+    /**
+     * Constructs a console game where every player answers through System.in
+     * and everything is printed to System.out a turn at a time
+     * @param numPlayers the number of players in the game
+     */
+    public Game(int numPlayers) {
+        this(Utils.repeat(numPlayers, new ConsoleDecisions()), new BufferedOutput(System.out));
+    }
+
+    /**
+     * Constructs a game with a random seed
+     * @param seats who makes the decisions for each player, in seating order
+     * @param out where game text is sent, GameOutput.NONE for a headless game
+     */
+    public Game(List<? extends DecisionProvider> seats, GameOutput out) {
+        this(seats, out, new SplittableRandom().nextLong());
+    }
 
     /**
      * Constructs all the data necessary to run a game.
      * This includes the following:
-     * - Create a scanner of System.in and saves it into io
+     * - Saves the output all game text is sent to
+     * - Creates a GameRandom from seed, every shuffle and draw in the game comes from it
+     * - Initializes playArea with room for every card in the game
      * - Creates a deck using the createDeck function and saves it into deck.
-     * - Creates a list of players with length given by numPlayers
-     * - Has each player draw 5 cards
+     * - Creates a list of players, one for each DecisionProvider in seats
      * - Creates a UnusIterator with the aforementioned player list
-     * - Assigns the parameter numPlayers to the instance variable numPlayers
-     * - Initializes playArea with a new ArrayDeque
-     * @param numPlayers the number of players in the game
+     * - Assigns the number of seats to the instance variable numPlayers
+     * - Has each player draw 5 cards
+     * @param seats who makes the decisions for each player, in seating order
+     * @param out where game text is sent, GameOutput.NONE for a headless game
+     * @param seed seed of the game, the same seed and the same decisions always replay the same game
      */
-    public Game(int numPlayers) {
-        this.io = new Scanner(System.in);
-        this.deck = createDeck();
-        List<Player> playerList = new ArrayList<>();
-        for (int i = 0; i < numPlayers; i++){
-            playerList.add(new Player("Player "+ (i), this ));
+    public Game(List<? extends DecisionProvider> seats, GameOutput out, long seed) {
+        this(seats, out, seed, GameListener.NONE);
+    }
+
+    /**
+     * Constructs a game that tells listener about everything that happens, starting with the deal,
+     * with as many decks as decksFor says the table needs
+     * @param seats who makes the decisions for each player, in seating order
+     * @param out where game text is sent, GameOutput.NONE for a headless game
+     * @param seed seed of the game, the same seed and the same decisions always replay the same game
+     * @param listener told about every event in the game
+     */
+    public Game(List<? extends DecisionProvider> seats, GameOutput out, long seed, GameListener listener) {
+        this(seats, out, seed, listener, decksFor(seats.size()));
+    }
+
+    /**
+     * Constructs a game played with numDecks standard decks shuffled together
+     * @param seats who makes the decisions for each player, in seating order
+     * @param out where game text is sent, GameOutput.NONE for a headless game
+     * @param seed seed of the game, the same seed and the same decisions always replay the same game
+     * @param listener told about every event in the game
+     * @param numDecks number of standard decks in the game, at least 1
+     */
+    public Game(List<? extends DecisionProvider> seats, GameOutput out, long seed, GameListener listener, int numDecks) {
+        if (seats.size() > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("too many players: " + seats.size());
+        }
+        if (numDecks > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("too many decks: " + numDecks);
+        }
+        this.out = out;
+        this.seed = seed;
+        this.listener = listener;
+        this.rng = new GameRandom(seed);
+        this.numDecks = numDecks;
+        this.deck = createDeck(numDecks);
+        this.playArea = new Card[deck.numCardsRemaining()];
+        List<Player> playerList = new ArrayList<>(seats.size());
+        for (int i = 0; i < seats.size(); i++){
+            playerList.add(new Player("Player "+ (i), i, this, seats.get(i)));
             }
         this.players = new UnusIterator<>(playerList);
-        // draws removed for testing win condition
+        this.numPlayers = seats.size();
+        listener.onStart(numPlayers, numDecks, seed);
+        // the opening deal does not count as drawing
+        dealing = true;
         for (Player player : playerList){
             player.drawCards(5);
         }
-        this.numPlayers = numPlayers;
-        this.playArea = new ArrayDeque<>();
+        dealing = false;
 
     }
 
@@ -54,30 +129,158 @@ public final class Game {
      *   - It then prints: "$curPlayer won!"
      * - The current player is received from the UnusIterator
      * - The player then takes their turn
-     * - The UnusIterator is then moved to the next player
+     * - The turn is ended with endTurn, which moves the UnusIterator to the next player
+     *   and flushes the output
+     * @return the Player who won the game
      */
-    public void start() {
+    public Player start() {
         Player curPlayer;
-        System.out.println("Welcome to Unus!\n");
+        printWelcome();
         do {
             curPlayer = players.current();
             curPlayer.takeTurn();
-            players.next();
-        } while (!curPlayer.emptyHand());
-        System.out.println(curPlayer + " won!");
+        } while (!endTurn());
+        return curPlayer;
+    }
+
+    /**
+     * prints the welcome start opens with, for callers that play the turns themselves
+     */
+    public void printWelcome() {
+        out.println("Welcome to Unus!\n");
+    }
+
+    /**
+     * Ends the current player's turn once they have played or passed, as start does after every turn.
+     * This function does the following:
+     * - Counts the turn and tells the listener
+     * - Moves the UnusIterator to the next player
+     * - Flushes the output
+     * - If the player's hand is empty they have won, prints: "$curPlayer won!" and flushes again
+     * @return true if the player whose turn it was won the game
+     */
+    public boolean endTurn() {
+        Player curPlayer = players.current();
+        int curSeat = players.getCurIndex();
+        turns++;
+        listener.onTurnEnd(curSeat, turns);
+        players.next();
+        out.flush();
+        if (!curPlayer.emptyHand()) { return false; }
+        winnerSeat = curSeat;
+        listener.onWin(curSeat, turns);
+        out.println(curPlayer + " won!");
+        out.flush();
+        return true;
+    }
+
+    /**
+     * Number of standard decks a table needs, one for every 10 players
+     * so the opening deal never takes more than half the cards
+     * @param numPlayers number of players at the table
+     * @return int number of decks, at least 1
+     */
+    public static int decksFor(int numPlayers) {
+        return Math.max(1, (numPlayers + 9) / 10);
+    }
+
+    /**
+     * Summarizes the game once start has returned
+     * @return GameResult with the winner's seat, number of turns, cards drawn, and reshuffles
+     */
+    public GameResult getResult() {
+        return new GameResult(winnerSeat, turns, cardsDrawn, reshuffles);
+    }
 
+    /**
+     * Makes a player draw the cards a DrawN gives them,
+     * the listener is told about them as penalty draws
+     * @param player player who has to draw
+     * @param num number of cards to draw
+     */
+    public void drawPenalty(Player player, int num) {
+        penalty = true;
+        try {
+            player.drawCards(num);
+        } finally {
+            penalty = false;
+        }
     }
 
     /**
-     * prints information to the console and gets their response from scanner
+     * Records cards a player just drew, they are the last num cards in their hand.
+     * Cards drawn while dealing are told to the listener as deals and are not counted as draws,
+     * cards drawn because of a DrawN are told as penalty draws, see drawPenalty.
+     * @param player player who drew
+     * @param num number of cards that were just drawn
+     */
+    public void recordDraws(Player player, int num) {
+        Hand hand = player.hand;
+        int first = hand.numCardsRemaining() - num;
+        for (int i = first; i < hand.numCardsRemaining(); i++) {
+            if (dealing) {
+                listener.onDeal(player.getSeat(), hand.getCard(i).getFace());
+            } else if (penalty) {
+                listener.onPenaltyDraw(player.getSeat(), hand.getCard(i).getFace());
+            } else {
+                listener.onDraw(player.getSeat(), hand.getCard(i).getFace());
+            }
+        }
+        if (!dealing) {
+            cardsDrawn += num;
+        }
+    }
+
+    /**
+     * getter for the game's listener
+     * @return GameListener told about every event in the game
+     */
+    public GameListener getListener() {
+        return listener;
+    }
+
+    /**
+     * prints information to the console and gets their response from scanner,
+     * the output is flushed first so the user can see everything up to the question
      * @param toUser question to ask the user
      * @return String user input
      */
     public String interact(String toUser) {
-        System.out.println(toUser);
+        if (io == null) {
+            io = new Scanner(System.in);
+        }
+        out.println(toUser);
+        out.flush();
         return io.nextLine();
     }
 
+    /**
+     * getter for the seed the game was created with
+     * @return long seed of this game
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * getter for the game's random generator, the deck shuffles and draws with it.
+     * Bots that need randomness should not draw from it, that would change the cards dealt
+     * and break GameReplayer, they should use their own generator, seeded from getSeed if the
+     * game has to stay reproducible from its seed
+     * @return RandomGenerator of this game
+     */
+    public RandomGenerator getRandom() {
+        return rng;
+    }
+
+    /**
+     * getter for the output all game text is sent to
+     * @return GameOutput of this game
+     */
+    public GameOutput getOutput() {
+        return out;
+    }
+
     /**
      * getter for UnusIterator for Players
      * @return UnusIterator of type Player
@@ -96,10 +299,18 @@ public final class Game {
 
     /**
      * getter for the number of cards in the play area
-     * @return int size of the play area Deque
+     * @return int size of the play area
      */
     public int getNumberOfCardsInPlay() {
-        return playArea.size();
+        return playSize;
+    }
+
+    /**
+     * getter for the number of standard decks the game was made with
+     * @return int number of decks
+     */
+    public int getNumDecks() {
+        return numDecks;
     }
 
     /**
@@ -112,31 +323,118 @@ public final class Game {
 
     /**
      * getter for the top card on the play area
-     * @return top card of the play area Deque
+     * @return top card of the play area
      */
     public Card getTopCard() {
-        if (playArea.isEmpty()) {
-            return new None();
+        if (playSize == 0) {
+            return CardCode.toCard(CardCode.NONE);
         }
 
-        return playArea.getFirst();
+        return playArea[playSize - 1];
     }
 
     /**
-     * puts the player's chosen card at the top of the play area deque
+     * puts the player's chosen card at the top of the play area
      * @param card user's chosen card
      */
     public void playCard(Card card) {
-        playArea.addFirst(card);
+        if (playSize == playArea.length) {
+            playArea = Arrays.copyOf(playArea, Math.max(16, playSize * 2));
+        }
+        playArea[playSize++] = card;
+    }
+
+    /**
+     * Takes a snapshot of the game that restore can later go back to.
+     * Only the CardCode of every card is copied, see GameSnapshot.
+     * @return GameSnapshot of the game as it is now
+     */
+    public GameSnapshot snapshot() {
+        int totalCards = deck.numCardsRemaining() + playSize;
+        int[] handSizes = new int[numPlayers];
+        for (int seat = 0; seat < numPlayers; seat++) {
+            handSizes[seat] = players.get(seat).hand.numCardsRemaining();
+            totalCards += handSizes[seat];
+        }
+        byte[] faces = new byte[totalCards];
+        int offset = deck.copyFaces(faces, 0);
+        // top card first
+        for (int i = playSize - 1; i >= 0; i--) {
+            faces[offset++] = playArea[i].getFace();
+        }
+        for (int seat = 0; seat < numPlayers; seat++) {
+            offset = players.get(seat).hand.copyFaces(faces, offset);
+        }
+        int[] skips = new int[numPlayers];
+        players.copySkips(skips);
+        return new GameSnapshot(faces, deck.numCardsRemaining(), playSize, handSizes, skips,
+                players.getCurIndex(), players.getDir(), turns, cardsDrawn, reshuffles, rng.getState());
     }
 
     /**
-     * Takes the cards that have been played and adds them back into the deck
-     * shuffles the deck
+     * Puts the game back the way it was when the snapshot was taken.
+     * The snapshot is left untouched so it can be restored again.
+     * @param snapshot snapshot taken from this game
+     */
+    public void restore(GameSnapshot snapshot) {
+        if (snapshot.getNumPlayers() != numPlayers) {
+            throw new IllegalArgumentException("snapshot has " + snapshot.getNumPlayers() + " players, not " + numPlayers);
+        }
+        byte[] faces = snapshot.getFaces();
+        int offset = deck.restoreFaces(faces, 0, snapshot.getDeckSize());
+        int restoredSize = snapshot.getPlayAreaSize();
+        if (restoredSize > playArea.length) {
+            playArea = new Card[restoredSize];
+        }
+        if (playSize > restoredSize) {
+            Arrays.fill(playArea, restoredSize, playSize, null);
+        }
+        playSize = restoredSize;
+        for (int i = playSize - 1; i >= 0; i--) {
+            playArea[i] = CardCode.toCard(faces[offset++]);
+        }
+        for (int seat = 0; seat < numPlayers; seat++) {
+            offset = players.get(seat).hand.restoreFaces(faces, offset, snapshot.getHandSize(seat));
+        }
+        players.restore(snapshot.getCurIndex(), snapshot.getDir(), snapshot.getSkips());
+        turns = snapshot.getTurns();
+        cardsDrawn = snapshot.getCardsDrawn();
+        reshuffles = snapshot.getReshuffles();
+        rng.setState(snapshot.getRandomState());
+        winnerSeat = -1;
+    }
+
+    /**
+     * Takes the cards that have been played and adds them back into the deck.
+     * This function does the following:
+     * - Leaves the top card on the play area so the next player still has something to match
+     * - Moves every card under it into the deck in one copy, shuffling each one in at a random spot
+     *   so the cards still in the deck are not shuffled again, see Deck::shuffleIn
+     * - Clears the play area down to the top card
+     * When there is nothing under the top card nothing happens, and it is not counted as a reshuffle.
+     * Nothing is allocated, the deck and the play area both have room for every card in the game.
      */
     public void shufflePlayAreaIntoDeck() {
-        deck.addCards(playArea);
-        deck.shuffleDeck();
+        int cardsReturned = playSize - 1;
+        if (cardsReturned <= 0) { return; }
+        GameEvents.Reshuffle event = new GameEvents.Reshuffle();
+        long start = Metrics.ENABLED ? System.nanoTime() : 0;
+        event.begin();
+        reshuffles++;
+        listener.onReshuffle(cardsReturned);
+        deck.shuffleIn(playArea, 0, cardsReturned);
+        playArea[0] = playArea[playSize - 1];
+        Arrays.fill(playArea, 1, playSize, null);
+        playSize = 1;
+        event.end();
+        if (Metrics.ENABLED) {
+            Metrics.RESHUFFLE.record(System.nanoTime() - start, cardsReturned);
+        }
+        if (event.shouldCommit()) {
+            event.seed = seed;
+            event.cardsReturned = cardsReturned;
+            event.commit();
+        }
     }
 
     /**
@@ -159,44 +457,16 @@ public final class Game {
      * - 8 draw 2 cards - two of each color
      * - 4 wild cards
      * - 4 wild draw 4 cards
-     * @return A standard Unus deck of 108 cards
-     */
-    private Deck createDeck() {
-        List<Card> cards = new LinkedList<>();
-        // add each color card with value zero
-        cards.add(new Numbers(Card.Color.BLUE, 0));
-        cards.add(new Numbers(Card.Color.RED, 0));
-        cards.add(new Numbers(Card.Color.GREEN, 0));
-        cards.add(new Numbers(Card.Color.YELLOW, 0));
-        // add two of each color with value i
-        for (int i = 1; i < 10; i++){
-            for (int j = 0; j < 2; j++) {
-                cards.add(new Numbers(Card.Color.BLUE, i));
-                cards.add(new Numbers(Card.Color.RED, i));
-                cards.add(new Numbers(Card.Color.GREEN, i));
-                cards.add(new Numbers(Card.Color.YELLOW, i));
-            }
-        }
-        // add two of each color reverse, skip, and draw 2 cards
-        for (int i = 0; i < 2; i++) {
-            cards.add(new Reverse(Card.Color.BLUE));
-            cards.add(new Reverse(Card.Color.RED));
-            cards.add(new Reverse(Card.Color.GREEN));
-            cards.add(new Reverse(Card.Color.YELLOW));
-            cards.add(new Skip(Card.Color.BLUE));
-            cards.add(new Skip(Card.Color.RED));
-            cards.add(new Skip(Card.Color.GREEN));
-            cards.add(new Skip(Card.Color.YELLOW));
-            cards.add(new DrawN(Card.Color.BLUE, 2));
-            cards.add(new DrawN(Card.Color.RED, 2));
-            cards.add(new DrawN(Card.Color.GREEN, 2));
-            cards.add(new DrawN(Card.Color.YELLOW, 2));
-        }
-        // add 4 wild and wild draw 4 cards
-        for (int i = 0; i < 4; i++){
-            cards.add(new Wild(Card.Color.WILD));
-            cards.add(new DrawN(Card.Color.WILD, 4));
-        }
-        return new Deck(cards);
+     * Every card is the shared Card for its CardCode, so no cards are made per game.
+     * Big tables shuffle several of these decks together.
+     * The deck is lazy, so it is never shuffled as a whole, every draw picks a random card.
+     * When the deck runs out it refills itself from the play area.
+     * @param numDecks number of standard decks
+     * @return A deck of numDecks standard Unus decks, 108 cards each
+     */
+    private Deck createDeck(int numDecks) {
+        Deck deck = new Deck(CardCode.standardDeck(numDecks), rng, this::shufflePlayAreaIntoDeck, true);
+        deck.setGameSeed(seed);
+        return deck;
     }
 }
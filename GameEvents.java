@@ -0,0 +1,86 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Corey Walker
+ * JDK Flight Recorder events for the parts of a game that take time.
+ * They are only recorded when a recording is running, for example with
+ * java -XX:StartFlightRecording=filename=unus.jfr Tournament
+ * and otherwise cost nothing, the JIT removes an event that is never enabled.
+ * Every event has the seed of its game so the events of one table can be picked out,
+ * a deck that is not part of a game has seed 0.
+ */
+public final class GameEvents {
+    private GameEvents() {}
+
+    @Name("unus.Turn")
+    @Label("Turn")
+    @Category("Unus")
+    @Description("One call to Player.takeTurn, the duration includes the time spent deciding")
+    @StackTrace(false)
+    public static final class Turn extends Event {
+        @Label("Game Seed")
+        long seed;
+
+        @Label("Seat")
+        int seat;
+
+        @Label("Decision Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long decisionNanos;
+
+        @Label("Engine Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long engineNanos;
+    }
+
+    @Name("unus.Draw")
+    @Label("Draw")
+    @Category("Unus")
+    @Description("One call to Player.drawCards")
+    @StackTrace(false)
+    public static final class Draw extends Event {
+        @Label("Game Seed")
+        long seed;
+
+        @Label("Seat")
+        int seat;
+
+        @Label("Cards Asked For")
+        int requested;
+
+        @Label("Cards Drawn")
+        int drawn;
+    }
+
+    @Name("unus.ShuffleDeck")
+    @Label("Shuffle Deck")
+    @Category("Unus")
+    @Description("One call to Deck.shuffleDeck")
+    @StackTrace(false)
+    public static final class ShuffleDeck extends Event {
+        @Label("Game Seed")
+        long seed;
+
+        @Label("Cards")
+        int cards;
+    }
+
+    @Name("unus.Reshuffle")
+    @Label("Reshuffle Play Area")
+    @Category("Unus")
+    @Description("One call to Game.shufflePlayAreaIntoDeck")
+    @StackTrace(false)
+    public static final class Reshuffle extends Event {
+        @Label("Game Seed")
+        long seed;
+
+        @Label("Cards Returned")
+        int cardsReturned;
+    }
+}
@@ -0,0 +1,146 @@
+/**
+ * Corey Walker
+ * Gets told about everything that happens in a Game as it happens.
+ * Every method does nothing by default so a listener only overrides the events it cares about.
+ * A game has one listener, use GameListener.of to give it several.
+ * Events for a card leaving a hand come after the events its action caused,
+ * since Card::play does the action before the card lands on the play area.
+ */
+public interface GameListener {
+    GameListener NONE = new GameListener() {};
+
+    /**
+     * a game is about to be dealt
+     * @param numPlayers number of players in the game
+     * @param numDecks number of standard decks in the game
+     * @param seed seed of the game
+     */
+    default void onStart(int numPlayers, int numDecks, long seed) {}
+
+    /**
+     * a card was dealt to a player at the start of the game
+     * @param seat index of the player
+     * @param face CardCode of the card
+     */
+    default void onDeal(int seat, int face) {}
+
+    /**
+     * a player drew a card during the game
+     * @param seat index of the player
+     * @param face CardCode of the card
+     */
+    default void onDraw(int seat, int face) {}
+
+    /**
+     * a player drew a card because a DrawN was played on them,
+     * by default it is told to onDraw like any other draw
+     * @param seat index of the player who drew
+     * @param face CardCode of the card
+     */
+    default void onPenaltyDraw(int seat, int face) {
+        onDraw(seat, face);
+    }
+
+    /**
+     * a player played a card from their hand onto the play area
+     * @param seat index of the player
+     * @param index index the card had in their hand
+     * @param face CardCode of the card
+     */
+    default void onPlay(int seat, int index, int face) {}
+
+    /**
+     * a player skipped another player
+     * @param seat index of the player who played the Skip
+     * @param target index of the player who was skipped
+     * @param depth number of skips now stacked on target
+     */
+    default void onSkip(int seat, int target, int depth) {}
+
+    /**
+     * a player reversed the direction of play
+     * @param seat index of the player who played the Reverse
+     */
+    default void onReverse(int seat) {}
+
+    /**
+     * the play area was shuffled back into the deck
+     * @param cardsReturned number of cards that went back into the deck
+     */
+    default void onReshuffle(int cardsReturned) {}
+
+    /**
+     * a player's turn is over
+     * @param seat index of the player
+     * @param turn number of turns played so far, counting this one
+     */
+    default void onTurnEnd(int seat, int turn) {}
+
+    /**
+     * a player emptied their hand
+     * @param seat index of the player who won
+     * @param turns number of turns in the game
+     */
+    default void onWin(int seat, int turns) {}
+
+    /**
+     * Combines listeners into one that passes every event to each of them in order
+     * @param listeners listeners to tell
+     * @return GameListener that tells all of them
+     */
+    static GameListener of(GameListener... listeners) {
+        if (listeners.length == 1) { return listeners[0]; }
+        GameListener[] all = listeners.clone();
+        return new GameListener() {
+            @Override
+            public void onStart(int numPlayers, int numDecks, long seed) {
+                for (GameListener listener : all) { listener.onStart(numPlayers, numDecks, seed); }
+            }
+
+            @Override
+            public void onDeal(int seat, int face) {
+                for (GameListener listener : all) { listener.onDeal(seat, face); }
+            }
+
+            @Override
+            public void onDraw(int seat, int face) {
+                for (GameListener listener : all) { listener.onDraw(seat, face); }
+            }
+
+            @Override
+            public void onPenaltyDraw(int seat, int face) {
+                for (GameListener listener : all) { listener.onPenaltyDraw(seat, face); }
+            }
+
+            @Override
+            public void onPlay(int seat, int index, int face) {
+                for (GameListener listener : all) { listener.onPlay(seat, index, face); }
+            }
+
+            @Override
+            public void onSkip(int seat, int target, int depth) {
+                for (GameListener listener : all) { listener.onSkip(seat, target, depth); }
+            }
+
+            @Override
+            public void onReverse(int seat) {
+                for (GameListener listener : all) { listener.onReverse(seat); }
+            }
+
+            @Override
+            public void onReshuffle(int cardsReturned) {
+                for (GameListener listener : all) { listener.onReshuffle(cardsReturned); }
+            }
+
+            @Override
+            public void onTurnEnd(int seat, int turn) {
+                for (GameListener listener : all) { listener.onTurnEnd(seat, turn); }
+            }
+
+            @Override
+            public void onWin(int seat, int turns) {
+                for (GameListener listener : all) { listener.onWin(seat, turns); }
+            }
+        };
+    }
+}
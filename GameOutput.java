@@ -0,0 +1,43 @@
+/**
+ * Corey Walker
+ * Where a game sends the text it would otherwise print to the console
+ * - CONSOLE writes every line to System.out as soon as it is printed
+ * - NONE throws everything away, used for headless games
+ * - BufferedOutput holds a turn's text and writes it all at once when flushed
+ * - CaptureOutput keeps everything in memory so it can be read back
+ * - AsyncOutput hands each flushed turn to a background thread to write
+ * Lines are passed as Objects so that cards and hands are only turned into
+ * text when something actually keeps them.
+ * The game flushes at the end of every turn and before it asks anyone a question.
+ */
+@FunctionalInterface
+public interface GameOutput {
+    GameOutput CONSOLE = System.out::println;
+    GameOutput NONE = line -> {};
+
+    /**
+     * outputs a single line of text
+     * @param line object whose toString is the line to output
+     */
+    void println(Object line);
+
+    /**
+     * sends any text that is being held on to where it is going
+     */
+    default void flush() {}
+
+    /**
+     * Appends a line and a new line to a buffer,
+     * hands are drawn straight into the buffer instead of through Hand::toString
+     * @param sb buffer to append to
+     * @param line object whose toString is the line
+     */
+    static void appendLine(StringBuilder sb, Object line) {
+        if (line instanceof Hand hand) {
+            CardRenderer.appendHand(hand, sb);
+        } else {
+            sb.append(line);
+        }
+        sb.append('\n');
+    }
+}
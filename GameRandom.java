@@ -0,0 +1,53 @@
+import java.util.random.RandomGenerator;
+
+/**
+ * Corey Walker
+ * The random generator a Game draws and shuffles with.
+ * It is the same SplitMix64 generator as a SplittableRandom made from the same seed and gives
+ * exactly the same numbers, but its whole state is one long that can be read and set again,
+ * so a GameSnapshot can save it and a restored game draws the same cards it drew the first time.
+ */
+public final class GameRandom implements RandomGenerator {
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private long state;
+
+    /**
+     * constructor for a generator
+     * @param seed gives the same numbers as new SplittableRandom(seed)
+     */
+    public GameRandom(long seed) {
+        this.state = seed;
+    }
+
+    /**
+     * getter for the state of the generator
+     * @return long that setState takes to go back to this point
+     */
+    public long getState() {
+        return state;
+    }
+
+    /**
+     * setter for the state of the generator
+     * @param state a value from getState
+     */
+    public void setState(long state) {
+        this.state = state;
+    }
+
+    @Override
+    public long nextLong() {
+        long z = state += GOLDEN_GAMMA;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    @Override
+    public int nextInt() {
+        long z = state += GOLDEN_GAMMA;
+        z = (z ^ (z >>> 33)) * 0x62a9d9ed799705f5L;
+        return (int) (((z ^ (z >>> 28)) * 0xcb24d0a5c88c35b3L) >>> 32);
+    }
+}
@@ -0,0 +1,127 @@
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Corey Walker
+ * Rebuilds a game from an EventLog by applying its events to a real Game.
+ * - a START record creates a Game with the logged seed and number of decks, which deals exactly the same hands
+ * - draws take the top card of the Deck into the player's Hand
+ * - plays take the logged index out of the Hand and put the card on the play area
+ * - skips and reverses are applied to the UnusIterator, and every TURN_END moves it to the next player
+ * - reshuffles use Game::shufflePlayAreaIntoDeck, so they shuffle the same way the original game did
+ * A reshuffle is logged before the draw that caused it finishes, so replaying one waits until a draw
+ * finds the deck empty. The state at every turn boundary is exactly the original game's.
+ * If a drawn or played card is not the one the log says, the log does not belong to that seed
+ * and an IllegalStateException is thrown.
+ */
+public final class GameReplayer implements GameListener {
+    private Game game;
+    private int gamesStarted;
+    private int turns;
+    private int pendingReshuffles;
+    private boolean finished;
+
+    @Override
+    public void onStart(int numPlayers, int numDecks, long seed) {
+        game = new Game(Utils.repeat(numPlayers, new GreedyBot()), GameOutput.NONE, seed, GameListener.NONE, numDecks);
+        gamesStarted++;
+        turns = 0;
+        pendingReshuffles = 0;
+        finished = false;
+    }
+
+    @Override
+    public void onDraw(int seat, int face) {
+        Deck deck = game.getDeck();
+        if (deck.numCardsRemaining() == 0 && pendingReshuffles > 0) {
+            pendingReshuffles--;
+            game.shufflePlayAreaIntoDeck();
+        }
+        Card card = deck.pollCard();
+        if (card == null) {
+            throw new IllegalStateException("log draws from an empty deck");
+        }
+        check(card, face);
+        game.getPlayers().get(seat).hand.addCard(card);
+    }
+
+    @Override
+    public void onPlay(int seat, int index, int face) {
+        Card card = game.getPlayers().get(seat).hand.removeCard(index);
+        check(card, face);
+        game.playCard(card);
+    }
+
+    @Override
+    public void onSkip(int seat, int target, int depth) {
+        game.getPlayers().skip(target);
+    }
+
+    @Override
+    public void onReverse(int seat) {
+        game.getPlayers().reverse();
+    }
+
+    @Override
+    public void onReshuffle(int cardsReturned) {
+        pendingReshuffles++;
+    }
+
+    @Override
+    public void onTurnEnd(int seat, int turn) {
+        game.getPlayers().next();
+        turns++;
+    }
+
+    @Override
+    public void onWin(int seat, int turns) {
+        finished = true;
+    }
+
+    private static void check(Card card, int face) {
+        if (card.getFace() != face) {
+            throw new IllegalStateException("log has " + CardCode.toCard(face).strRep() + " where the game has " + card.strRep());
+        }
+    }
+
+    /**
+     * getter for the game being rebuilt
+     * @return Game as of the last event applied, null before the first START
+     */
+    public Game getGame() {
+        return game;
+    }
+
+    /**
+     * getter for the number of turns replayed in the current game
+     * @return int turns replayed
+     */
+    public int getTurns() {
+        return turns;
+    }
+
+    /**
+     * Rebuilds a game as it was after a number of turns
+     * @param log file written by EventLog
+     * @param gameNumber which game in the file, starting at 0
+     * @param turn number of turns to replay, or more than the game had to replay all of it
+     * @return Game as it was at the end of that turn
+     * @throws IOException if the file cannot be read
+     */
+    public static Game replay(Path log, int gameNumber, int turn) throws IOException {
+        GameReplayer replayer = new GameReplayer();
+        try (EventScanner scanner = new EventScanner(log)) {
+            while (replayer.gamesStarted <= gameNumber) {
+                if (!scanner.next(replayer)) {
+                    throw new IllegalArgumentException(log + " has only " + replayer.gamesStarted + " games");
+                }
+            }
+            while (replayer.turns < turn && !replayer.finished && scanner.next(replayer)) {
+                if (replayer.gamesStarted > gameNumber + 1) {
+                    throw new IllegalStateException("game " + gameNumber + " ended without a WIN record");
+                }
+            }
+        }
+        return replayer.game;
+    }
+}
@@ -0,0 +1,53 @@
+/**
+ * Corey Walker
+ * The outcome of a single finished game
+ * - which seat won
+ * - how many turns were taken
+ * - how many cards were drawn after the opening deal
+ * - how many times the play area was shuffled back into the deck
+ */
+public final class GameResult {
+    private final int winnerSeat;
+    private final int turns;
+    private final int cardsDrawn;
+    private final int reshuffles;
+
+    public GameResult(int winnerSeat, int turns, int cardsDrawn, int reshuffles) {
+        this.winnerSeat = winnerSeat;
+        this.turns = turns;
+        this.cardsDrawn = cardsDrawn;
+        this.reshuffles = reshuffles;
+    }
+
+    /**
+     * getter for the winning seat
+     * @return index of the player who won, -1 if the game has not finished
+     */
+    public int getWinnerSeat() {
+        return winnerSeat;
+    }
+
+    /**
+     * getter for the number of turns
+     * @return int number of turns taken
+     */
+    public int getTurns() {
+        return turns;
+    }
+
+    /**
+     * getter for the number of cards drawn
+     * @return int cards drawn after the opening deal
+     */
+    public int getCardsDrawn() {
+        return cardsDrawn;
+    }
+
+    /**
+     * getter for the number of reshuffles
+     * @return int times the play area was shuffled into the deck
+     */
+    public int getReshuffles() {
+        return reshuffles;
+    }
+}
@@ -0,0 +1,107 @@
+/**
+ * Corey Walker
+ * A frozen copy of everything that changes while a Game is played:
+ * - the order of the deck
+ * - every player's hand
+ * - the play area
+ * - the direction, the skips on every seat, and whose turn it is
+ * - the turn, draw, and reshuffle counts
+ * - the state of the game's random generator
+ * Cards are stored as their CardCode bytes in one array, so taking a snapshot is a few
+ * small array copies and never copies Card objects. A snapshot is never changed after it is
+ * taken, so a search can restore the same one as many times as it likes.
+ * The deck is lazy and picks every card it draws with the game's random generator, so the
+ * generator is saved too, and a restored game draws and shuffles exactly as it did the first time.
+ */
+public final class GameSnapshot {
+    private final byte[] faces;
+    private final int deckSize;
+    private final int playAreaSize;
+    private final int[] handSizes;
+    private final int[] skips;
+    private final int curIndex;
+    private final int dir;
+    private final int turns;
+    private final int cardsDrawn;
+    private final int reshuffles;
+    private final long randomState;
+
+    /**
+     * constructor for a snapshot, see Game::snapshot
+     * @param faces the deck from bottom to top, then the play area from top to bottom, then each hand in order
+     */
+    GameSnapshot(byte[] faces, int deckSize, int playAreaSize, int[] handSizes, int[] skips,
+                 int curIndex, int dir, int turns, int cardsDrawn, int reshuffles, long randomState) {
+        this.faces = faces;
+        this.deckSize = deckSize;
+        this.playAreaSize = playAreaSize;
+        this.handSizes = handSizes;
+        this.skips = skips;
+        this.curIndex = curIndex;
+        this.dir = dir;
+        this.turns = turns;
+        this.cardsDrawn = cardsDrawn;
+        this.reshuffles = reshuffles;
+        this.randomState = randomState;
+    }
+
+    byte[] getFaces() {
+        return faces;
+    }
+
+    int getDeckSize() {
+        return deckSize;
+    }
+
+    int getPlayAreaSize() {
+        return playAreaSize;
+    }
+
+    int getHandSize(int seat) {
+        return handSizes[seat];
+    }
+
+    int[] getSkips() {
+        return skips;
+    }
+
+    /**
+     * getter for the number of seats in the snapshot
+     * @return int number of players
+     */
+    public int getNumPlayers() {
+        return handSizes.length;
+    }
+
+    /**
+     * getter for whose turn it was
+     * @return int index of the current player
+     */
+    public int getCurIndex() {
+        return curIndex;
+    }
+
+    /**
+     * getter for the direction of play
+     * @return +1 if moving forward, -1 if moving backwards
+     */
+    public int getDir() {
+        return dir;
+    }
+
+    int getTurns() {
+        return turns;
+    }
+
+    int getCardsDrawn() {
+        return cardsDrawn;
+    }
+
+    int getReshuffles() {
+        return reshuffles;
+    }
+
+    long getRandomState() {
+        return randomState;
+    }
+}
@@ -0,0 +1,35 @@
+/**
+ * Corey Walker
+ * A simple computer player used for headless games
+ * - plays the first card in its hand that matches the top card
+ * - always skips whoever would play next
+ */
+public final class GreedyBot implements DecisionProvider {
+
+    /**
+     * finds the first card in the hand that can be played on the top card
+     * @param game the game currently being played
+     * @param hand the bot's hand
+     * @return index of the first playable card, 0 if there is none
+     */
+    @Override
+    public int chooseCard(Game game, Hand hand) {
+        return Math.max(hand.firstPlayable(game.getTopCard()), 0);
+    }
+
+    /**
+     * skips the player who would otherwise go next,
+     * or the player next to the bot if play would come straight back to it
+     * @param game the game currently being played
+     * @return index of the player to skip
+     */
+    @Override
+    public int chooseSkip(Game game) {
+        UnusIterator<Player> players = game.getPlayers();
+        int next = players.findNextIndex(false);
+        if (next == players.getCurIndex()) {
+            next = Math.floorMod(next + players.getDir(), game.getNumPlayers());
+        }
+        return next;
+    }
+}
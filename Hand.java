@@ -3,26 +3,240 @@ import java.util.List;
 
 /**
  * Corey Walker
- * Hand is a list of cards that is unique to each player currently in the game.
+ * Hand is the cards that are unique to each player currently in the game.
  * When a player's hand is empty they win the game.
+ * Alongside the cards the hand keeps counts that are updated as cards come and go:
+ * - how many of each CardCode face it holds, and a mask with a bit for every face it has
+ * - how many cards of each color, of each number, and of each kind (skip, reverse, draw, ...)
+ * so questions like "can anything be played" or "how many reds do I have" never scan the hand.
+ * Every card sits in a slot that does not move while it is in the hand, a removed card just leaves
+ * a hole, and the slots of each face are kept in order so the playable cards are found by
+ * looking only at the playable faces. A Fenwick tree counting the filled slots turns a slot
+ * into a hand index and back in O(log n), and the holes are squeezed out once they pile up.
  */
 public final class Hand {
-    private final List<Card> cards;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private Card[] slots = new Card[INITIAL_CAPACITY];
+    // tree[i] counts the filled slots in (i - lowbit(i), i], slot s is at i = s + 1
+    private int[] tree = new int[INITIAL_CAPACITY + 1];
+    private int slotCount;
+    private int size;
+    // the slots holding each face, lowest first, faceCounts[f] of them are in use
+    private final int[][] faceSlots = new int[CardCode.NUM_FACES + 1][];
+    // faceSlots[f][0] kept in one flat array, so finding the first playable card reads one array
+    private final int[] firstSlots = new int[CardCode.NUM_FACES + 1];
+    private final int[] faceCounts = new int[CardCode.NUM_FACES + 1];
+    private final int[] colorCounts = new int[Card.Color.values().length];
+    private final int[] numberCounts = new int[10];
+    private final int[] kindCounts = new int[CardCode.KIND_NONE + 1];
+    private long faceMask;
 
     /**
      * constructor for the player's hand
-     * @param cards List of cards that are in the player's hand
+     * @param cards List of cards that start in the player's hand, it is copied
      */
     public Hand(List<Card> cards) {
-        this.cards = cards;
+        for (Card card : cards) {
+            addCard(card);
+        }
     }
 
     /**
-     * adds the card to the list of cards in the player's hand
+     * adds the card to the end of the player's hand
      * @param card Card to be added
      */
     public void addCard(Card card) {
-        cards.add(card);
+        if (slotCount == slots.length) {
+            compact(size < slots.length / 2 ? slots.length : slots.length * 2);
+        }
+        int slot = slotCount++;
+        slots[slot] = card;
+        for (int i = slot + 1; i < tree.length; i += i & -i) {
+            tree[i]++;
+        }
+        size++;
+        int face = card.getFace();
+        int[] list = faceSlots[face];
+        if (list == null) {
+            list = faceSlots[face] = new int[4];
+        } else if (faceCounts[face] == list.length) {
+            list = faceSlots[face] = Arrays.copyOf(list, list.length * 2);
+        }
+        // the new slot is past every other one, so the list stays in order
+        list[faceCounts[face]] = slot;
+        if (faceCounts[face] == 0) {
+            firstSlots[face] = slot;
+        }
+        countCard(face, 1);
+    }
+
+    /**
+     * removes a card from the hand by position, only the slots of its face are searched
+     * @param index index of the card in the hand
+     * @return Card that was removed
+     */
+    public Card removeCard(int index) {
+        int slot = slotOf(index);
+        Card removed = slots[slot];
+        slots[slot] = null;
+        for (int i = slot + 1; i < tree.length; i += i & -i) {
+            tree[i]--;
+        }
+        size--;
+        int face = removed.getFace();
+        int[] list = faceSlots[face];
+        int at = Arrays.binarySearch(list, 0, faceCounts[face], slot);
+        System.arraycopy(list, at + 1, list, at, faceCounts[face] - at - 1);
+        firstSlots[face] = list[0];
+        countCard(face, -1);
+        while (slotCount > 0 && slots[slotCount - 1] == null) {
+            slotCount--;
+        }
+        if (slotCount > INITIAL_CAPACITY && size < slotCount / 4) {
+            compact(slots.length);
+        }
+        return removed;
+    }
+
+    /**
+     * moves every card down into the first slots, in hand order, and rebuilds the index
+     * @param capacity number of slots afterwards, at least size
+     */
+    private void compact(int capacity) {
+        Card[] old = slots;
+        int oldCount = slotCount;
+        if (capacity != slots.length) {
+            slots = new Card[capacity];
+            tree = new int[capacity + 1];
+        } else {
+            Arrays.fill(tree, 0);
+        }
+        slotCount = 0;
+        Arrays.fill(faceCounts, 0);
+        for (int s = 0; s < oldCount; s++) {
+            Card card = old[s];
+            if (card == null) { continue; }
+            int face = card.getFace();
+            if (faceCounts[face] == 0) {
+                firstSlots[face] = slotCount;
+            }
+            faceSlots[face][faceCounts[face]++] = slotCount;
+            slots[slotCount++] = card;
+        }
+        Arrays.fill(slots, slotCount, slots.length, null);
+        // build the tree in O(n) by pushing each count up to its parent
+        for (int i = 1; i < tree.length; i++) {
+            if (i <= slotCount) {
+                tree[i]++;
+            }
+            int parent = i + (i & -i);
+            if (parent < tree.length) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+
+    /**
+     * finds the slot of the card at an index by walking down the Fenwick tree
+     * @param index index of the card in the hand
+     * @return int slot holding that card
+     */
+    private int slotOf(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+        if (slotCount == size) {
+            // no holes, every card is in the slot of its index
+            return index;
+        }
+        int pos = 0;
+        int remaining = index + 1;
+        for (int step = Integer.highestOneBit(tree.length - 1); step != 0; step >>= 1) {
+            int next = pos + step;
+            if (next < tree.length && tree[next] < remaining) {
+                pos = next;
+                remaining -= tree[next];
+            }
+        }
+        return pos;
+    }
+
+    /**
+     * counts the cards in the slots before a slot, which is the index of the card in it
+     * @param slot a filled slot
+     * @return int index of the card in the hand
+     */
+    private int indexOf(int slot) {
+        if (slotCount == size) {
+            return slot;
+        }
+        int index = 0;
+        for (int i = slot; i > 0; i -= i & -i) {
+            index += tree[i];
+        }
+        return index;
+    }
+
+    /**
+     * copies the CardCode of every card in hand order
+     * @param into array to copy into
+     * @param offset where in the array to start
+     * @return offset just past the last face copied
+     */
+    public int copyFaces(byte[] into, int offset) {
+        for (int s = 0; s < slotCount; s++) {
+            if (slots[s] != null) {
+                into[offset++] = slots[s].getFace();
+            }
+        }
+        return offset;
+    }
+
+    /**
+     * replaces the hand with the cards copied by copyFaces
+     * @param from array to copy from
+     * @param offset where in the array to start
+     * @param count number of cards in the hand
+     * @return offset just past the last face copied
+     */
+    public int restoreFaces(byte[] from, int offset, int count) {
+        Arrays.fill(slots, 0, slotCount, null);
+        Arrays.fill(tree, 0);
+        slotCount = 0;
+        size = 0;
+        Arrays.fill(faceCounts, 0);
+        Arrays.fill(colorCounts, 0);
+        Arrays.fill(numberCounts, 0);
+        Arrays.fill(kindCounts, 0);
+        faceMask = 0;
+        for (int i = 0; i < count; i++) {
+            addCard(CardCode.toCard(from[offset++]));
+        }
+        return offset;
+    }
+
+    private void countCard(int face, int change) {
+        faceCounts[face] += change;
+        colorCounts[CardCode.colorIndex(face)] += change;
+        kindCounts[CardCode.kind(face)] += change;
+        if (CardCode.kind(face) == CardCode.KIND_NUMBER) {
+            numberCounts[CardCode.value(face)] += change;
+        }
+        if (faceCounts[face] == 0) {
+            faceMask &= ~CardCode.bit(face);
+        } else {
+            faceMask |= CardCode.bit(face);
+        }
+    }
+
+    /**
+     * getter for a card in the hand
+     * @param index index of the card in the hand
+     * @return Card at that index
+     */
+    public Card getCard(int index) {
+        return slots[slotOf(index)];
     }
 
     /**
@@ -31,52 +245,180 @@ public final class Hand {
      * @return int number of cards in the player's hand
      */
     public int numCardsRemaining() {
-        return cards.size();
+        return size;
     }
 
     /**
      * This function does the following:
      * - Gets the current card using index
-     * - Plays the current card
-     * - Removes the current card from cards
+     * - Plays the current card, which also puts it in the play area
+     * - Removes the current card from the hand
+     * - Tells the game's listener which card the current player played
      * @param game State of the game
-     * @param index Index of desired card to play in cards
+     * @param index Index of desired card to play in the hand
      * @throws Card.CannotPlayCardException
      */
     public void playCard(Game game, int index) throws Card.CannotPlayCardException {
-            Card toPlay = cards.get(index);
+            Card toPlay = getCard(index);
             toPlay.play(game);
-            game.playCard(toPlay);
-            cards.remove(toPlay);
+            removeCard(index);
+            game.getListener().onPlay(game.getPlayers().getCurIndex(), index, toPlay.getFace());
+
+    }
 
+    /**
+     * Plays a card that Moves has already checked, so nothing is thrown.
+     * It does the same as playCard, except a Skip skips skipTarget instead of asking who to skip.
+     * @param game State of the game
+     * @param index Index of the card to play in the hand
+     * @param skipTarget index of the player to skip if the card is a Skip
+     */
+    void playLegal(Game game, int index, int skipTarget) {
+        Card toPlay = getCard(index);
+        if (toPlay instanceof Skip) {
+            ((Skip) toPlay).skipPlayer(game, skipTarget);
+        } else {
+            toPlay.doAction(game);
+        }
+        game.playCard(toPlay);
+        removeCard(index);
+        game.getListener().onPlay(game.getPlayers().getCurIndex(), index, toPlay.getFace());
     }
 
     /**
      * This function checks to see if your hand has any
-     * matches to the given card
+     * matches to the given card by checking the hand's mask
+     * against every face that can be played on it
      * @param topCard Card currently in play
-     * @return true if match is found and false otherwise
+     * @return true if no match is found and false otherwise
      */
     public boolean noMatches(Card topCard) {
-        for (Card card : cards){
-            if (card.match(topCard)){ return false; }
+        return (faceMask & CardCode.playableOn(topCard.getFace())) == 0;
+    }
+
+    /**
+     * getter for the faces in the hand
+     * @return long with bit f set if the hand holds at least one card with CardCode f
+     */
+    public long getFaceMask() {
+        return faceMask;
+    }
+
+    /**
+     * every face in the hand that can be played on the top card
+     * @param topCard Card currently in play
+     * @return long with bit f set if the hand holds a playable card with CardCode f
+     */
+    public long playableFaces(Card topCard) {
+        return faceMask & CardCode.playableOn(topCard.getFace());
+    }
+
+    /**
+     * counts the cards that can be played on the top card,
+     * only looking at the faces that are both in the hand and playable
+     * @param topCard Card currently in play
+     * @return int number of playable cards
+     */
+    public int countPlayable(Card topCard) {
+        int count = 0;
+        for (long faces = playableFaces(topCard); faces != 0; faces &= faces - 1) {
+            count += faceCounts[Long.numberOfTrailingZeros(faces)];
+        }
+        return count;
+    }
+
+    /**
+     * finds the first card in the hand that can be played on the top card
+     * @param topCard Card currently in play
+     * @return index of the first playable card, -1 if there is none
+     */
+    public int firstPlayable(Card topCard) {
+        return firstOf(playableFaces(topCard));
+    }
+
+    /**
+     * finds the first card in the hand with one of the faces,
+     * only looking at the lowest slot of each face that is in the hand
+     * @param faces long with bit f set for every CardCode f wanted
+     * @return index of the first card with one of the faces, -1 if there is none
+     */
+    public int firstOf(long faces) {
+        int first = Integer.MAX_VALUE;
+        for (long wanted = faces & faceMask; wanted != 0; wanted &= wanted - 1) {
+            first = Math.min(first, firstSlots[Long.numberOfTrailingZeros(wanted)]);
+        }
+        return first == Integer.MAX_VALUE ? -1 : indexOf(first);
+    }
+
+    /**
+     * Writes the index of every card that can be played on the top card into indexes, in hand order.
+     * Only the slots of the playable faces are gathered, so the rest of the hand is never looked at.
+     * @param topCard Card currently in play
+     * @param indexes array to write into, must have room for countPlayable(topCard) indexes
+     * @return int number of indexes written
+     */
+    public int playableIndexes(Card topCard, int[] indexes) {
+        int found = 0;
+        for (long faces = playableFaces(topCard); faces != 0; faces &= faces - 1) {
+            int face = Long.numberOfTrailingZeros(faces);
+            int[] list = faceSlots[face];
+            for (int i = 0; i < faceCounts[face]; i++) {
+                indexes[found++] = list[i];
+            }
         }
-        return true;
+        Arrays.sort(indexes, 0, found);
+        for (int i = 0; i < found; i++) {
+            indexes[i] = indexOf(indexes[i]);
+        }
+        return found;
+    }
+
+    /**
+     * getter for the number of cards with a face
+     * @param face CardCode of the face
+     * @return int number of cards with that face
+     */
+    public int countFace(int face) {
+        return faceCounts[face];
+    }
+
+    /**
+     * getter for the number of cards of a color
+     * @param color color to count, WILD counts wilds and wild draw 4s
+     * @return int number of cards of that color
+     */
+    public int countColor(Card.Color color) {
+        return colorCounts[color.ordinal()];
+    }
+
+    /**
+     * getter for the number of number cards with a value
+     * @param n value between 0 and 9, inclusive
+     * @return int number of number cards with that value
+     */
+    public int countNumber(int n) {
+        return numberCounts[n];
+    }
+
+    /**
+     * getter for the number of cards of a kind
+     * @param kind one of the CardCode KIND constants
+     * @return int number of cards of that kind
+     */
+    public int countKind(int kind) {
+        return kindCounts[kind];
     }
 
     /**
      * Prints out your current hand's cards horizontally.
-     * This is accomplished by calling the Card::prettyPrint
-     * function on all cards in your hands. The prettyPrint function
-     * transforms each card into a List<String> where each element of
-     * the list represents a line of output for that card. You must then
-     * Append all the first lines together separated by a space
+     * This is accomplished by CardRenderer::appendHand, which uses the
+     * lines of each card face that were drawn once when it loaded.
+     * All the first lines are appended together separated by a space
      * then all the second lines separated by spaces
      * etc.
-     * You must then put an index label under each card that
+     * Then an index label is put under each card that
      * is centered between each card.
-     * Then put a new line below
-     * Then return the String you constructed
+     * The StringBuilder is sized for the whole hand up front
      * For example if your hand consisted of a red reverse and a blue skip
      * then your output would look like:
      * /-------\ /-------\
@@ -88,29 +430,8 @@ public final class Hand {
      */
     @Override
     public String toString() {
-        StringBuilder hand = new StringBuilder();
-        int index = 0;
-        for (Card card : cards) {
-            List<String> cardString = card.prettyPrint();
-            hand.append(cardString.get(0)).append(" ");
-        }
-        hand.append("\n");
-        for (Card card : cards) {
-            List<String> cardString = card.prettyPrint();
-            hand.append(cardString.get(1)).append(" ");
-        }
-        hand.append("\n");
-        for (Card card : cards) {
-            List<String> cardString = card.prettyPrint();
-            hand.append(cardString.get(2)).append(" ");
-        }
-        hand.append("\n");
-        for (Card card : cards) {
-            hand.append("    ").append(index).append("     ");
-            index++;
-        }
-
-        return hand.toString();
+        StringBuilder hand = new StringBuilder(CardRenderer.handLength(this));
+        return CardRenderer.appendHand(this, hand).toString();
     }
 
     // Code you can use to test your implementation
@@ -0,0 +1,169 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Corey Walker
+ * Fixed size histogram of non-negative whole numbers.
+ * - every bucket covers bucketWidth values, bucket i holds [i * bucketWidth, (i + 1) * bucketWidth)
+ * - the last bucket also holds everything too big for the others
+ * - the count, sum, and largest value are kept exactly
+ * Adding a value is an array increment, so one can be kept per thread and merged at the end.
+ */
+public final class Histogram {
+    private final int bucketWidth;
+    private final long[] buckets;
+    private long count;
+    private long sum;
+    private long max;
+
+    /**
+     * constructor for an empty histogram
+     * @param bucketWidth number of values each bucket covers
+     * @param numBuckets number of buckets
+     */
+    public Histogram(int bucketWidth, int numBuckets) {
+        if (bucketWidth < 1 || numBuckets < 1) {
+            throw new IllegalArgumentException("histogram needs at least one bucket of width at least one");
+        }
+        this.bucketWidth = bucketWidth;
+        this.buckets = new long[numBuckets];
+    }
+
+    /**
+     * adds one value to the histogram
+     * @param value value to add, negative values count as 0
+     */
+    public void add(long value) {
+        if (value < 0) { value = 0; }
+        buckets[(int) Math.min(value / bucketWidth, buckets.length - 1)]++;
+        count++;
+        sum += value;
+        max = Math.max(max, value);
+    }
+
+    /**
+     * adds all of other's values into this histogram
+     * @param other histogram with the same buckets
+     * @return this, so merges can be chained
+     */
+    public Histogram merge(Histogram other) {
+        if (other.bucketWidth != bucketWidth || other.buckets.length != buckets.length) {
+            throw new IllegalArgumentException("cannot merge histograms with different buckets");
+        }
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] += other.buckets[i];
+        }
+        count += other.count;
+        sum += other.sum;
+        max = Math.max(max, other.max);
+        return this;
+    }
+
+    /**
+     * copies this histogram
+     * @return Histogram with the same buckets and counts
+     */
+    public Histogram copy() {
+        return new Histogram(bucketWidth, buckets.length).merge(this);
+    }
+
+    /**
+     * writes the histogram so read can make a copy of it, in another process if need be
+     * @param out where to write it
+     * @throws IOException if out cannot be written
+     */
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(bucketWidth);
+        out.writeInt(buckets.length);
+        for (long bucket : buckets) {
+            out.writeLong(bucket);
+        }
+        out.writeLong(count);
+        out.writeLong(sum);
+        out.writeLong(max);
+    }
+
+    /**
+     * reads a histogram written by write
+     * @param in where to read it from
+     * @return Histogram equal to the one written
+     * @throws IOException if in cannot be read
+     */
+    public static Histogram read(DataInput in) throws IOException {
+        Histogram histogram = new Histogram(in.readInt(), in.readInt());
+        for (int i = 0; i < histogram.buckets.length; i++) {
+            histogram.buckets[i] = in.readLong();
+        }
+        histogram.count = in.readLong();
+        histogram.sum = in.readLong();
+        histogram.max = in.readLong();
+        return histogram;
+    }
+
+    /**
+     * getter for the number of values added
+     * @return long count of values
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * getter for one bucket
+     * @param bucket index of the bucket
+     * @return long number of values in that bucket
+     */
+    public long getBucket(int bucket) {
+        return buckets[bucket];
+    }
+
+    /**
+     * getter for the number of buckets
+     * @return int number of buckets
+     */
+    public int getNumBuckets() {
+        return buckets.length;
+    }
+
+    /**
+     * getter for the largest value added
+     * @return long largest value, 0 if nothing was added
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * getter for the average value
+     * @return double mean of every value added, 0 if nothing was added
+     */
+    public double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    /**
+     * Finds the bucket a fraction of the values fall at or below.
+     * The answer is the top of that bucket, so it is exact when bucketWidth is 1,
+     * and the largest value when it lands in the last bucket.
+     * @param fraction between 0 and 1, 0.5 for the median
+     * @return long value at that fraction
+     */
+    public long getPercentile(double fraction) {
+        long target = (long) Math.ceil(fraction * count);
+        long seen = 0;
+        for (int i = 0; i < buckets.length - 1; i++) {
+            seen += buckets[i];
+            if (seen >= target && seen > 0) {
+                return Math.min((long) (i + 1) * bucketWidth - 1, max);
+            }
+        }
+        return max;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("mean %.2f, p50 %d, p90 %d, p99 %d, max %d",
+                getMean(), getPercentile(0.5), getPercentile(0.9), getPercentile(0.99), max);
+    }
+}
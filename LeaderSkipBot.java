@@ -0,0 +1,43 @@
+/**
+ * Corey Walker
+ * A computer player that goes after the leader
+ * - plays the first card in its hand that matches the top card, like GreedyBot
+ * - skips whichever other player has the fewest cards left, the one closest to winning,
+ *   and of those the one who would play soonest
+ * It keeps no state, so one LeaderSkipBot can sit in any number of seats and games at once.
+ */
+public final class LeaderSkipBot implements DecisionProvider {
+
+    /**
+     * finds the first card in the hand that can be played on the top card
+     * @param game the game currently being played
+     * @param hand the bot's hand
+     * @return index of the first playable card, 0 if there is none
+     */
+    @Override
+    public int chooseCard(Game game, Hand hand) {
+        return Math.max(hand.firstPlayable(game.getTopCard()), 0);
+    }
+
+    /**
+     * finds the player with the fewest cards, looking in the direction of play
+     * @param game the game currently being played
+     * @return index of the player to skip
+     */
+    @Override
+    public int chooseSkip(Game game) {
+        UnusIterator<Player> players = game.getPlayers();
+        int numPlayers = game.getNumPlayers();
+        int curIndex = players.getCurIndex();
+        int leader = Math.floorMod(curIndex + players.getDir(), numPlayers);
+        int fewest = Integer.MAX_VALUE;
+        for (int n = 1, i = leader; n < numPlayers; n++, i = Math.floorMod(i + players.getDir(), numPlayers)) {
+            int cards = players.get(i).hand.numCardsRemaining();
+            if (cards < fewest) {
+                fewest = cards;
+                leader = i;
+            }
+        }
+        return leader;
+    }
+}
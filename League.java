@@ -0,0 +1,274 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Corey Walker
+ * Round robin league between computer strategies, each one a stateless DecisionProvider.
+ * - tables have a fixed number of seats, two or more, and every ordered seating of that many different
+ *   strategies is a matchup, so every strategy sits in every seat next to every other strategy
+ * - game k is matchup k % number of matchups, so every matchup moves forward together
+ *   and the ratings are meaningful at any point while the league runs
+ * - games are split across a ForkJoinPool the same way Tournament does it
+ * - each result updates the Elo ratings straight away, the winner is taken to have beaten each of the
+ *   other players at the table, by less and less as a strategy plays more games,
+ *   so ratings settle down instead of wandering over millions of games
+ * Strategies that pick who to skip, like LeaderSkipBot, only differ from GreedyBot at tables of three or more.
+ * Ratings are doubles kept as bits in an AtomicLongArray and changed with compare and set,
+ * and the counts are LongAdders, so no game ever waits on a lock.
+ * Game k is seeded with Tournament.gameSeed(seed, k), so any game can be replayed on its own.
+ */
+public final class League {
+    private static final int GAMES_PER_TASK = 64;
+    private static final double START_RATING = 1500;
+    private static final double K_FACTOR = 32;
+    private static final double K_GAMES = 1000;
+
+    private final List<String> names;
+    private final List<? extends DecisionProvider> strategies;
+    private final int seatsPerTable;
+    private final int[][] matchups;
+    private final long numGames;
+    private final long seed;
+
+    private final AtomicLongArray ratings;
+    private final LongAdder[] games;
+    private final LongAdder[] wins;
+    private final LongAdder[] nanos;
+    private long startNanos;
+
+    /**
+     * constructor for a league of two player games
+     * @param names name of each strategy, printed in the standings
+     * @param strategies the strategies, shared by every game so they must keep no state
+     * @param numGames how many games to play in all
+     * @param seed seed every game's seed is derived from
+     */
+    public League(List<String> names, List<? extends DecisionProvider> strategies, long numGames, long seed) {
+        this(names, strategies, 2, numGames, seed);
+    }
+
+    /**
+     * constructor for a league
+     * @param names name of each strategy, printed in the standings
+     * @param strategies the strategies, shared by every game so they must keep no state
+     * @param seatsPerTable players in every game, from two up to the number of strategies
+     * @param numGames how many games to play in all
+     * @param seed seed every game's seed is derived from
+     */
+    public League(List<String> names, List<? extends DecisionProvider> strategies, int seatsPerTable,
+                  long numGames, long seed) {
+        if (names.size() != strategies.size() || strategies.size() < 2) {
+            throw new IllegalArgumentException("a league needs at least two strategies, each with a name");
+        }
+        if (seatsPerTable < 2 || seatsPerTable > strategies.size()) {
+            throw new IllegalArgumentException("tables need from 2 to " + strategies.size() + " seats, not " + seatsPerTable);
+        }
+        this.names = List.copyOf(names);
+        this.strategies = strategies;
+        this.seatsPerTable = seatsPerTable;
+        this.numGames = numGames;
+        this.seed = seed;
+        int n = strategies.size();
+        List<int[]> seatings = new ArrayList<>();
+        addSeatings(new int[seatsPerTable], 0, new boolean[n], seatings);
+        this.matchups = seatings.toArray(new int[0][]);
+        this.ratings = new AtomicLongArray(n);
+        this.games = new LongAdder[n];
+        this.wins = new LongAdder[n];
+        this.nanos = new LongAdder[n];
+        for (int i = 0; i < n; i++) {
+            ratings.set(i, Double.doubleToLongBits(START_RATING));
+            games[i] = new LongAdder();
+            wins[i] = new LongAdder();
+            nanos[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * adds every ordered seating of different strategies that starts with the seats already filled
+     * @param seating strategy in each seat, filled up to seat
+     * @param seat first seat not filled yet
+     * @param seated which strategies already have a seat
+     * @param into where finished seatings are added
+     */
+    private static void addSeatings(int[] seating, int seat, boolean[] seated, List<int[]> into) {
+        if (seat == seating.length) {
+            into.add(seating.clone());
+            return;
+        }
+        for (int strategy = 0; strategy < seated.length; strategy++) {
+            if (seated[strategy]) { continue; }
+            seated[strategy] = true;
+            seating[seat] = strategy;
+            addSeatings(seating, seat + 1, seated, into);
+            seated[strategy] = false;
+        }
+    }
+
+    /**
+     * Plays every game on the given pool, giving onProgress the standings every period
+     * @param pool pool to play the games on
+     * @param period time between standings
+     * @param unit unit of period
+     * @param onProgress given the standings so far, on the calling thread
+     */
+    public void run(ForkJoinPool pool, long period, TimeUnit unit, Consumer<String> onProgress) {
+        startNanos = System.nanoTime();
+        ForkJoinTask<Void> task = pool.submit(new Games(0, numGames));
+        try {
+            while (true) {
+                try {
+                    task.get(period, unit);
+                    return;
+                } catch (TimeoutException e) {
+                    onProgress.accept(standings());
+                }
+            }
+        } catch (InterruptedException e) {
+            task.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting for the league", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("a game failed", e.getCause());
+        }
+    }
+
+    /**
+     * plays one game of the league and records its result
+     * @param gameNumber which game of the league this is
+     */
+    private void play(long gameNumber) {
+        int[] matchup = matchups[(int) (gameNumber % matchups.length)];
+        List<DecisionProvider> seats = new ArrayList<>(seatsPerTable);
+        for (int strategy : matchup) {
+            seats.add(strategies.get(strategy));
+        }
+        long start = System.nanoTime();
+        Game game = new Game(seats, GameOutput.NONE, Tournament.gameSeed(seed, gameNumber));
+        game.start();
+        long took = System.nanoTime() - start;
+        int winnerSeat = game.getResult().getWinnerSeat();
+        int winner = matchup[winnerSeat];
+        for (int strategy : matchup) {
+            games[strategy].increment();
+            nanos[strategy].add(took);
+        }
+        wins[winner].increment();
+        for (int seat = 0; seat < matchup.length; seat++) {
+            if (seat != winnerSeat) {
+                updateRatings(winner, matchup[seat], matchup.length - 1);
+            }
+        }
+    }
+
+    /**
+     * Moves rating from the loser to the winner by the Elo rule.
+     * The K factor starts at K_FACTOR and shrinks as 1 / games played, once the strategies have
+     * played K_GAMES games it is half that. A game with more than two players is one win over
+     * each of the other players, each worth 1 / opponents of a two player game, so a game moves
+     * ratings about as much however many seats it has.
+     * Both ratings are read, the change is worked out, and each is changed with compare and set.
+     * Another game may change a rating in between, then only the compare and set is retried,
+     * so the change is worked out from ratings a moment old, which Elo does not mind.
+     * @param winner index of the strategy that won
+     * @param loser index of the strategy that lost
+     * @param opponents number of players the winner beat in the game
+     */
+    private void updateRatings(int winner, int loser, int opponents) {
+        double expected = 1 / (1 + Math.pow(10, (getRating(loser) - getRating(winner)) / 400));
+        double played = (games[winner].sum() + games[loser].sum()) / 2.0;
+        double change = K_FACTOR * K_GAMES / (K_GAMES + played) * (1 - expected) / opponents;
+        addRating(winner, change);
+        addRating(loser, -change);
+    }
+
+    private void addRating(int strategy, double change) {
+        long old;
+        long updated;
+        do {
+            old = ratings.get(strategy);
+            updated = Double.doubleToLongBits(Double.longBitsToDouble(old) + change);
+        } while (!ratings.compareAndSet(strategy, old, updated));
+    }
+
+    /**
+     * getter for a strategy's rating
+     * @param strategy index of the strategy
+     * @return double Elo rating
+     */
+    public double getRating(int strategy) {
+        return Double.longBitsToDouble(ratings.get(strategy));
+    }
+
+    /**
+     * Standings of every strategy: rating, games, win rate,
+     * games per second of wall time so far, and microseconds of game time per game it played in
+     * @return String with one line per strategy
+     */
+    public String standings() {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < names.size(); i++) {
+            long played = games[i].sum();
+            sb.append(String.format("%-14s rating %7.1f  games %10d  won %5.1f%%  %9.0f games/sec  %7.1f us/game%n",
+                    names.get(i), getRating(i), played, 100.0 * wins[i].sum() / Math.max(played, 1),
+                    played / seconds, nanos[i].sum() / 1e3 / Math.max(played, 1)));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Task that plays the games numbered [from, to)
+     */
+    private final class Games extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final long from;
+        private final long to;
+
+        Games(long from, long to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= GAMES_PER_TASK) {
+                for (long i = from; i < to; i++) {
+                    play(i);
+                }
+                return;
+            }
+            long mid = (from + to) >>> 1;
+            invokeAll(new Games(from, mid), new Games(mid, to));
+        }
+    }
+
+    /**
+     * Plays a league of every built in stateless strategy and prints the standings every second
+     * @param args number of games, seed, and seats per table,
+     *             defaults to 1000000 games with a random seed at 4 seat tables
+     */
+    public static void main(String[] args) {
+        long numGames = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : new SplittableRandom().nextLong();
+        int seatsPerTable = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        League league = new League(
+                List.of("greedy", "color", "saveWilds", "leaderSkip"),
+                List.of(new GreedyBot(), new ColorBot(), new SaveWildsBot(), new LeaderSkipBot()),
+                seatsPerTable, numGames, seed);
+        System.out.println("Seed: " + seed);
+        league.run(ForkJoinPool.commonPool(), 1, TimeUnit.SECONDS, System.out::println);
+        System.out.print(league.standings());
+    }
+}
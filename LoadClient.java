@@ -0,0 +1,155 @@
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.SplittableRandom;
+
+/**
+ * Corey Walker
+ * Load generator for UnusServer.
+ * Opens enough connections to fill a number of tables and plays every seat from a single thread
+ * with a Selector, answering each "ASK" with one of the accepted indexes at random.
+ * Move latency is the time from sending an answer to the first byte of the server's reply,
+ * and is kept in a fixed histogram of microseconds so memory does not grow with the number of moves.
+ * Usage: java LoadClient [host] [port] [tables] [players per table]
+ */
+public final class LoadClient {
+    private static final int MAX_MICROS = 1_000_000;
+
+    private final SplittableRandom rng = new SplittableRandom();
+    private final long[] latencyMicros = new long[MAX_MICROS + 1];
+    private long moves;
+    private long gamesFinished;
+
+    /**
+     * The state of one seat's connection
+     */
+    private static final class Connection {
+        private final ByteBuffer readBuffer = ByteBuffer.allocate(16 * 1024);
+        private final StringBuilder line = new StringBuilder();
+        private long answeredAt;
+    }
+
+    /**
+     * connects every seat and plays until the server has hung up on all of them
+     * @param address address of the server
+     * @param connections number of seats to play
+     * @throws IOException if a connection cannot be made
+     */
+    public void run(InetSocketAddress address, int connections) throws IOException {
+        try (Selector selector = Selector.open()) {
+            for (int i = 0; i < connections; i++) {
+                SocketChannel channel = SocketChannel.open(address);
+                channel.socket().setTcpNoDelay(true);
+                channel.configureBlocking(false);
+                channel.register(selector, SelectionKey.OP_READ, new Connection());
+            }
+            int open = connections;
+            while (open > 0) {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!read((SocketChannel) key.channel(), (Connection) key.attachment())) {
+                        key.cancel();
+                        key.channel().close();
+                        open--;
+                        gamesFinished++;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * reads what has arrived and answers any questions
+     * @return false once the server has closed the connection
+     */
+    private boolean read(SocketChannel channel, Connection connection) throws IOException {
+        ByteBuffer buffer = connection.readBuffer;
+        int read = channel.read(buffer);
+        if (read < 0) { return false; }
+        if (connection.answeredAt != 0) {
+            long micros = (System.nanoTime() - connection.answeredAt) / 1000;
+            latencyMicros[(int) Math.min(micros, MAX_MICROS)]++;
+            connection.answeredAt = 0;
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            char c = (char) buffer.get();
+            if (c != '\n') {
+                connection.line.append(c);
+                continue;
+            }
+            if (connection.line.length() > 4 && connection.line.charAt(0) == 'A'
+                    && connection.line.indexOf("ASK ") == 0) {
+                answer(channel, connection);
+            }
+            connection.line.setLength(0);
+        }
+        buffer.clear();
+        return true;
+    }
+
+    /**
+     * picks one of the indexes listed after "ASK CARD", or any player but self after "ASK SKIP $players $self",
+     * and sends it back
+     */
+    private void answer(SocketChannel channel, Connection connection) throws IOException {
+        String[] words = connection.line.toString().split(" ");
+        String choice;
+        if (words[1].equals("SKIP")) {
+            int players = Integer.parseInt(words[2]);
+            int self = Integer.parseInt(words[3]);
+            int target = rng.nextInt(players - 1);
+            choice = Integer.toString(target >= self ? target + 1 : target);
+        } else {
+            choice = words.length > 2 ? words[2 + rng.nextInt(words.length - 2)] : "0";
+        }
+        ByteBuffer reply = ByteBuffer.wrap((choice + "\n").getBytes(StandardCharsets.US_ASCII));
+        while (reply.hasRemaining()) {
+            channel.write(reply);
+        }
+        connection.answeredAt = System.nanoTime();
+        moves++;
+    }
+
+    /**
+     * finds a latency percentile from the histogram
+     * @param fraction between 0 and 1
+     * @return long microseconds
+     */
+    private long percentile(double fraction) {
+        long total = 0;
+        for (long count : latencyMicros) { total += count; }
+        long target = (long) Math.ceil(total * fraction);
+        long seen = 0;
+        for (int micros = 0; micros < latencyMicros.length; micros++) {
+            seen += latencyMicros[micros];
+            if (seen >= target && seen > 0) { return micros; }
+        }
+        return 0;
+    }
+
+    public static void main(String[] args) throws IOException {
+        String host = args.length > 0 ? args[0] : "127.0.0.1";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 7251;
+        int tables = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+        int playersPerTable = args.length > 3 ? Integer.parseInt(args[3]) : 3;
+
+        LoadClient client = new LoadClient();
+        long start = System.nanoTime();
+        client.run(new InetSocketAddress(host, port), tables * playersPerTable);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%d tables, %d moves in %.2fs, %.0f moves/sec%n",
+                client.gamesFinished / playersPerTable, client.moves, seconds, client.moves / seconds);
+        System.out.printf("move latency us: p50 %d, p90 %d, p99 %d, max %d%n",
+                client.percentile(0.5), client.percentile(0.9), client.percentile(0.99), client.percentile(1.0));
+    }
+}
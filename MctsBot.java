@@ -0,0 +1,325 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Corey Walker
+ * A computer player that picks its card with Monte Carlo tree search.
+ * - the moves it considers are every playable card in its hand, and for a Skip every player it could skip
+ * - the other hands and the deck are hidden, so every playout first deals the unseen cards out at random
+ *   (a determinized world) while keeping everyone's hand size, the play area, skips, and direction as they are
+ * - the chosen move is played in a FastGame and the rest of the game is played out with random matching cards,
+ *   so Skips, Reverses, and DrawN penalties all work the way they do in the real game
+ * - moves are picked with UCB1 and the move played most often is chosen
+ * Playouts are split across workers, each with its own statistics and random generator,
+ * and the statistics are added together at the end. The search stops at the time or playout budget,
+ * whichever comes first.
+ * The workers run on a ForkJoinPool the bot owns with one thread per worker, so a bot never uses more
+ * threads than it was given and bots at the same table or in a Tournament do not crowd the common pool.
+ * Its threads stop on their own once idle, close stops them straight away.
+ * How many playouts were run and how fast is kept for getLastPlayouts and getLastPlayoutsPerSecond,
+ * nothing is printed into the game.
+ * Each seat needs its own MctsBot since it remembers the skip it chose between chooseCard and chooseSkip.
+ */
+public final class MctsBot implements DecisionProvider, AutoCloseable {
+    private static final double EXPLORATION = 0.7;
+    private static final int MAX_ROLLOUT_TURNS = 2_000;
+
+    private final long millisPerMove;
+    private final int playoutsPerMove;
+    private final int workers;
+    private final ForkJoinPool pool;
+    private final SplittableRandom rng;
+
+    private int chosenSkip = -1;
+    private long lastPlayouts;
+    private double lastPlayoutsPerSecond;
+
+    /**
+     * constructor for an MctsBot with a worker for every core
+     * @param millisPerMove most time to think about one move
+     * @param playoutsPerMove most playouts for one move
+     * @param seed seed for the random deals and playouts
+     */
+    public MctsBot(long millisPerMove, int playoutsPerMove, long seed) {
+        this(millisPerMove, playoutsPerMove, Runtime.getRuntime().availableProcessors(), seed);
+    }
+
+    /**
+     * constructor for an MctsBot
+     * @param millisPerMove most time to think about one move
+     * @param playoutsPerMove most playouts for one move
+     * @param workers number of searches to run in parallel, and the number of threads the bot's pool has
+     * @param seed seed for the random deals and playouts
+     */
+    public MctsBot(long millisPerMove, int playoutsPerMove, int workers, long seed) {
+        this.millisPerMove = millisPerMove;
+        this.playoutsPerMove = playoutsPerMove;
+        this.workers = Math.max(workers, 1);
+        this.pool = new ForkJoinPool(this.workers);
+        this.rng = new SplittableRandom(seed);
+    }
+
+    /**
+     * Searches every legal move and returns the card of the best one,
+     * if the best card is a Skip the player to skip is saved for chooseSkip
+     * @param game the game currently being played
+     * @param hand the bot's hand
+     * @return index of the card to play
+     */
+    @Override
+    public int chooseCard(Game game, Hand hand) {
+        int[] playable = new int[hand.countPlayable(game.getTopCard())];
+        hand.playableIndexes(game.getTopCard(), playable);
+        int curIndex = game.getPlayers().getCurIndex();
+
+        List<int[]> moves = new ArrayList<>();
+        for (int index : playable) {
+            if (CardCode.kind(hand.getCard(index).getFace()) == CardCode.KIND_SKIP) {
+                for (int target = 0; target < game.getNumPlayers(); target++) {
+                    if (target != curIndex) { moves.add(new int[] {index, target}); }
+                }
+            } else {
+                moves.add(new int[] {index, -1});
+            }
+        }
+        if (moves.size() <= 1) {
+            int[] only = moves.isEmpty() ? new int[] {0, -1} : moves.get(0);
+            chosenSkip = only[1];
+            return only[0];
+        }
+
+        int[] best = moves.get(search(game, moves));
+        chosenSkip = best[1];
+        return best[0];
+    }
+
+    /**
+     * returns the skip chosen by the last search, or the next player if the search did not pick a Skip
+     * @param game the game currently being played
+     * @return index of the player to skip
+     */
+    @Override
+    public int chooseSkip(Game game) {
+        int target = chosenSkip;
+        chosenSkip = -1;
+        if (target >= 0) { return target; }
+        UnusIterator<Player> players = game.getPlayers();
+        int next = players.findNextIndex(false);
+        if (next == players.getCurIndex()) {
+            next = Math.floorMod(next + players.getDir(), game.getNumPlayers());
+        }
+        return next;
+    }
+
+    /**
+     * getter for the number of playouts in the last search
+     * @return long number of playouts
+     */
+    public long getLastPlayouts() {
+        return lastPlayouts;
+    }
+
+    /**
+     * getter for the speed of the last search
+     * @return double playouts per second
+     */
+    public double getLastPlayoutsPerSecond() {
+        return lastPlayoutsPerSecond;
+    }
+
+    /**
+     * stops the bot's worker threads, the bot should not be asked anything after this
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    /**
+     * runs the search on every worker of the bot's pool and adds up their visits
+     * @return index in moves of the move visited most
+     */
+    private int search(Game game, List<int[]> moves) {
+        World world = new World(game);
+        long deadline = System.nanoTime() + millisPerMove * 1_000_000;
+        int perWorker = Math.max(playoutsPerMove / workers, 1);
+
+        List<Search> searches = new ArrayList<>();
+        for (int i = 0; i < workers; i++) {
+            searches.add(new Search(world, moves, perWorker, deadline, rng.split()));
+        }
+        long start = System.nanoTime();
+        for (Search search : searches) {
+            pool.execute(search);
+        }
+        for (Search search : searches) {
+            search.join();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long[] visits = new long[moves.size()];
+        lastPlayouts = 0;
+        for (Search search : searches) {
+            for (int m = 0; m < visits.length; m++) {
+                visits[m] += search.visits[m];
+            }
+            lastPlayouts += search.playouts;
+        }
+        lastPlayoutsPerSecond = lastPlayouts / Math.max(seconds, 1e-9);
+
+        int best = 0;
+        for (int m = 1; m < visits.length; m++) {
+            if (visits[m] > visits[best]) { best = m; }
+        }
+        return best;
+    }
+
+    /**
+     * What the bot can see of the game, taken from a snapshot:
+     * its own hand, the play area, everyone's hand size, skips, direction,
+     * and the unseen cards, which are the deck and the other hands mixed together
+     */
+    private static final class World {
+        private final int numPlayers;
+        private final int seat;
+        private final int capacity;
+        private final byte[] ownHand;
+        private final byte[] playArea;
+        private final byte[] unseen;
+        private final int[] handSizes;
+        private final int deckSize;
+        private final int[] skips;
+        private final int dir;
+
+        World(Game game) {
+            GameSnapshot snapshot = game.snapshot();
+            byte[] faces = snapshot.getFaces();
+            numPlayers = snapshot.getNumPlayers();
+            seat = snapshot.getCurIndex();
+            capacity = faces.length;
+            deckSize = snapshot.getDeckSize();
+            handSizes = new int[numPlayers];
+            skips = snapshot.getSkips();
+            dir = snapshot.getDir();
+
+            // the snapshot has the play area top first, FastGame wants the top last
+            playArea = new byte[snapshot.getPlayAreaSize()];
+            for (int i = 0; i < playArea.length; i++) {
+                playArea[playArea.length - 1 - i] = faces[deckSize + i];
+            }
+            unseen = new byte[capacity - playArea.length - snapshot.getHandSize(seat)];
+            System.arraycopy(faces, 0, unseen, 0, deckSize);
+            int unseenSize = deckSize;
+            int offset = deckSize + playArea.length;
+            byte[] own = null;
+            for (int s = 0; s < numPlayers; s++) {
+                handSizes[s] = snapshot.getHandSize(s);
+                if (s == seat) {
+                    own = new byte[handSizes[s]];
+                    System.arraycopy(faces, offset, own, 0, handSizes[s]);
+                } else {
+                    System.arraycopy(faces, offset, unseen, unseenSize, handSizes[s]);
+                    unseenSize += handSizes[s];
+                }
+                offset += handSizes[s];
+            }
+            ownHand = own;
+        }
+
+        /**
+         * loads a game with this world, dealing the unseen cards out in a random order
+         * @param game game to load into
+         * @param shuffled scratch array the size of unseen
+         * @param rng random generator for the deal
+         */
+        void determinize(FastGame game, byte[] shuffled, SplittableRandom rng) {
+            System.arraycopy(unseen, 0, shuffled, 0, unseen.length);
+            for (int i = shuffled.length - 1; i > 0; i--) {
+                int j = rng.nextInt(i + 1);
+                byte temp = shuffled[i];
+                shuffled[i] = shuffled[j];
+                shuffled[j] = temp;
+            }
+            game.loadDeck(shuffled, 0, deckSize);
+            int offset = deckSize;
+            for (int s = 0; s < numPlayers; s++) {
+                if (s == seat) {
+                    game.loadHand(s, ownHand, 0, ownHand.length);
+                } else {
+                    game.loadHand(s, shuffled, offset, handSizes[s]);
+                    offset += handSizes[s];
+                }
+            }
+            game.loadPlayArea(playArea, 0, playArea.length);
+            game.loadTurn(seat, dir, skips);
+        }
+    }
+
+    /**
+     * One worker's search, UCB1 over the moves with a determinized playout for every visit
+     */
+    private static final class Search extends ForkJoinTask<Void> {
+        private static final long serialVersionUID = 1L;
+
+        private final World world;
+        private final List<int[]> moves;
+        private final int maxPlayouts;
+        private final long deadline;
+        private final SplittableRandom rng;
+        private final long[] visits;
+        private final long[] wins;
+        private long playouts;
+
+        Search(World world, List<int[]> moves, int maxPlayouts, long deadline, SplittableRandom rng) {
+            this.world = world;
+            this.moves = moves;
+            this.maxPlayouts = maxPlayouts;
+            this.deadline = deadline;
+            this.rng = rng;
+            this.visits = new long[moves.size()];
+            this.wins = new long[moves.size()];
+        }
+
+        @Override
+        protected boolean exec() {
+            FastGame game = new FastGame(world.numPlayers, world.capacity, rng);
+            game.setRandomPlay(true);
+            byte[] shuffled = new byte[world.unseen.length];
+            while (playouts < maxPlayouts && ((playouts & 15) != 0 || System.nanoTime() < deadline)) {
+                int m = select();
+                world.determinize(game, shuffled, rng);
+                int[] move = moves.get(m);
+                int winner = game.playMove(move[0], move[1]);
+                if (winner < 0) { winner = game.play(MAX_ROLLOUT_TURNS); }
+                visits[m]++;
+                if (winner == world.seat) { wins[m]++; }
+                playouts++;
+            }
+            return true;
+        }
+
+        private int select() {
+            double logTotal = Math.log(playouts + 1);
+            int best = 0;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            for (int m = 0; m < visits.length; m++) {
+                if (visits[m] == 0) { return m; }
+                double score = (double) wins[m] / visits[m] + EXPLORATION * Math.sqrt(logTotal / visits[m]);
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = m;
+                }
+            }
+            return best;
+        }
+
+        @Override
+        public Void getRawResult() { return null; }
+
+        @Override
+        protected void setRawResult(Void value) {}
+    }
+}
@@ -0,0 +1,129 @@
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Corey Walker
+ * Registry of named timers that add up where the time goes across every game in the JVM.
+ * - turn.decision: time DecisionProviders spent choosing cards and skips
+ * - turn.engine: the rest of Player.takeTurn
+ * - player.drawCards, deck.shuffleDeck, game.shufflePlayAreaIntoDeck
+ * Metrics are off unless the JVM is started with -Dunus.metrics=true.
+ * ENABLED is a constant, so when it is false the JIT removes every check of it and
+ * the timed code runs exactly as it would without them.
+ * Timers use LongAdders so any number of game threads can record at once without contending.
+ */
+public final class Metrics {
+    public static final boolean ENABLED = Boolean.getBoolean("unus.metrics");
+
+    private static final Map<String, Timer> TIMERS = new ConcurrentSkipListMap<>();
+
+    public static final Timer TURN_DECISION = timer("turn.decision");
+    public static final Timer TURN_ENGINE = timer("turn.engine");
+    public static final Timer DRAW = timer("player.drawCards");
+    public static final Timer SHUFFLE_DECK = timer("deck.shuffleDeck");
+    public static final Timer RESHUFFLE = timer("game.shufflePlayAreaIntoDeck");
+
+    private Metrics() {}
+
+    /**
+     * Finds the timer with a name, registering it the first time it is asked for
+     * @param name name of the timer
+     * @return Timer with that name
+     */
+    public static Timer timer(String name) {
+        return TIMERS.computeIfAbsent(name, Timer::new);
+    }
+
+    /**
+     * Writes one line per timer that has recorded anything
+     * @param out where to write the summary
+     */
+    public static void dump(PrintStream out) {
+        out.println(summary());
+    }
+
+    /**
+     * Summary of every timer that has recorded anything
+     * @return String with one line per timer, in name order
+     */
+    public static String summary() {
+        StringBuilder sb = new StringBuilder("Metrics:");
+        for (Timer timer : TIMERS.values()) {
+            if (timer.getCount() > 0) {
+                sb.append("\n  ").append(timer);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Dumps the summary to System.out when the JVM exits, if metrics are enabled
+     */
+    public static void dumpOnExit() {
+        if (ENABLED) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> dump(System.out), "unus-metrics"));
+        }
+    }
+
+    /**
+     * A named count of calls, the items they handled, and the time they took
+     */
+    public static final class Timer {
+        private final String name;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder items = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+        private Timer(String name) {
+            this.name = name;
+        }
+
+        /**
+         * records one call
+         * @param nanos how long it took
+         * @param handled number of items it handled, such as cards drawn
+         */
+        public void record(long nanos, int handled) {
+            count.increment();
+            items.add(handled);
+            totalNanos.add(nanos);
+            maxNanos.accumulate(nanos);
+        }
+
+        /**
+         * getter for the name
+         * @return String name of the timer
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * getter for the number of calls recorded
+         * @return long number of calls
+         */
+        public long getCount() {
+            return count.sum();
+        }
+
+        /**
+         * getter for the total time
+         * @return long nanoseconds over every call
+         */
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        @Override
+        public String toString() {
+            long calls = getCount();
+            long nanos = getTotalNanos();
+            return String.format("%-30s calls %12d  items %12d  total %10.3f ms  mean %10.1f ns  max %10.1f us",
+                    name, calls, items.sum(), nanos / 1e6, calls == 0 ? 0.0 : (double) nanos / calls, maxNanos.get() / 1e3);
+        }
+    }
+}
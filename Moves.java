@@ -0,0 +1,135 @@
+/**
+ * Corey Walker
+ * Legal move generator for the player whose turn it is, without any exceptions.
+ * A move is an int holding the index of a card in the current player's hand,
+ * and for a Skip the index of the player to skip, see move, cardIndex, and skipTarget.
+ * - generate writes every legal move into an int array the caller keeps reusing
+ * - apply plays a move and returns a status code instead of throwing
+ * A card is legal exactly when Card::play would accept it, both use CardCode.match,
+ * and a skip target is legal exactly when Skip::doAction would accept it, see Skip.isValidTarget.
+ * Drawing is not a move, Player::takeTurn draws for a player with nothing to play.
+ */
+public final class Moves {
+    public static final int OK = 0;
+    public static final int BAD_INDEX = 1;
+    public static final int NOT_PLAYABLE = 2;
+    public static final int BAD_SKIP_TARGET = 3;
+
+    private static final int NO_TARGET = -1;
+    private static final Card.Color[] COLORS = Card.Color.values();
+
+    private Moves() {}
+
+    /**
+     * makes a move
+     * @param cardIndex index of the card in the hand, less than 65536
+     * @param skipTarget index of the player to skip if the card is a Skip, otherwise -1
+     * @return int move
+     */
+    public static int move(int cardIndex, int skipTarget) {
+        return cardIndex | (skipTarget + 1) << 16;
+    }
+
+    /**
+     * getter for the card of a move
+     * @param move move made by move or generate
+     * @return int index of the card in the hand
+     */
+    public static int cardIndex(int move) {
+        return move & 0xffff;
+    }
+
+    /**
+     * getter for the skip target of a move
+     * @param move move made by move or generate
+     * @return int index of the player to skip, -1 if there is none
+     */
+    public static int skipTarget(int move) {
+        return (move >>> 16) - 1;
+    }
+
+    /**
+     * counts the legal moves of the current player,
+     * every playable card is one move except a Skip, which is one move per player it can skip
+     * @param game the game currently being played
+     * @return int number of legal moves
+     */
+    public static int count(Game game) {
+        Hand hand = game.getPlayers().current().hand;
+        Card top = game.getTopCard();
+        int skips = 0;
+        for (Card.Color color : COLORS) {
+            if (color != Card.Color.WILD && CardCode.match(CardCode.skip(color), top.getFace())) {
+                skips += hand.countFace(CardCode.skip(color));
+            }
+        }
+        return hand.countPlayable(top) + skips * (game.getNumPlayers() - 2);
+    }
+
+    /**
+     * Writes every legal move of the current player into moves, in hand order,
+     * with the moves of a Skip in order of the player skipped.
+     * If moves is too small the rest are not written but are still counted,
+     * so a caller can grow its array to the returned count and call again.
+     * @param game the game currently being played
+     * @param moves array to write the moves into
+     * @return int number of legal moves, which may be more than moves.length
+     */
+    public static int generate(Game game, int[] moves) {
+        UnusIterator<Player> players = game.getPlayers();
+        Hand hand = players.current().hand;
+        int curIndex = players.getCurIndex();
+        int numPlayers = game.getNumPlayers();
+        int[] playable = new int[hand.countPlayable(game.getTopCard())];
+        hand.playableIndexes(game.getTopCard(), playable);
+        int count = 0;
+        for (int i : playable) {
+            if (CardCode.kind(hand.getCard(i).getFace()) != CardCode.KIND_SKIP) {
+                if (count < moves.length) { moves[count] = move(i, NO_TARGET); }
+                count++;
+                continue;
+            }
+            for (int target = 0; target < numPlayers; target++) {
+                if (target == curIndex) { continue; }
+                if (count < moves.length) { moves[count] = move(i, target); }
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * checks a move without playing it
+     * @param game the game currently being played
+     * @param move move to check
+     * @return OK if it is legal, otherwise BAD_INDEX, NOT_PLAYABLE, or BAD_SKIP_TARGET
+     */
+    public static int check(Game game, int move) {
+        Hand hand = game.getPlayers().current().hand;
+        int index = cardIndex(move);
+        if (move < 0 || index >= hand.numCardsRemaining()) { return BAD_INDEX; }
+        Card card = hand.getCard(index);
+        if (!card.match(game.getTopCard())) { return NOT_PLAYABLE; }
+        int target = skipTarget(move);
+        if (card instanceof Skip ? !Skip.isValidTarget(game, target) : target != NO_TARGET) {
+            return BAD_SKIP_TARGET;
+        }
+        return OK;
+    }
+
+    /**
+     * Plays a move for the current player if it is legal,
+     * exactly as if their DecisionProvider had chosen that card and that player to skip.
+     * The turn does not move on, Game::start does that.
+     * @param game the game currently being played
+     * @param move move to play
+     * @return OK if it was played, otherwise BAD_INDEX, NOT_PLAYABLE, or BAD_SKIP_TARGET and nothing changes
+     */
+    public static int apply(Game game, int move) {
+        int status = check(game, move);
+        if (status == OK) {
+            game.getPlayers().current().hand.playLegal(game, cardIndex(move), skipTarget(move));
+        }
+        return status;
+    }
+}
@@ -2,11 +2,12 @@
  * Corey Walker
  * A None card is a card that is returned when the PlayerArea is empty.
  * It has color WILD so that it can match to anything, has no string rep, and does nothing
+ * Use CardCode.toCard(CardCode.NONE) rather than making a new one.
  */
 public class None extends Card {
 
     public None() {
-        super(Color.WILD);
+        super(Color.WILD, CardCode.NONE);
     }
 
     @Override
@@ -9,12 +9,7 @@ public class Numbers extends Card {
     private final int n;
 
     public Numbers(Color color, int n) {
-        super(color);
-
-        if (!(n >= 0 && n <= 9)) {
-            throw new IllegalArgumentException(n + " must be between [0,9]");
-        }
-
+        super(color, CardCode.number(color, n));
         this.n = n;
     }
 
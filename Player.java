@@ -2,112 +2,249 @@ import java.util.ArrayList;
 
 /**
  * Corey Walker
- * Every individual player has a name, the game instance they are playing on, and a hand of cards
+ * Every individual player has a name, the game instance they are playing on, a hand of cards,
+ * and a DecisionProvider that decides which cards they play and who they skip
  */
 public class Player {
     private final String name;
+    private final int seat;
     private final Game game;
+    private final DecisionProvider decisions;
     public final Hand hand;
-
+    // time spent in decisions this turn, only kept while a turn is being timed
+    private boolean timing;
+    private long decisionNanos;
+    private long turnStart;
+    private GameEvents.Turn turnEvent;
 
     /**
      * Constructor for the player
      * -sets the players name to name
-     * -places them in the game
+     * -places them in the game at seat
+     * -sets who makes their decisions
      * @param name string for the players name
+     * @param seat index of the player in the game
      * @param game the game that is being played
+     * @param decisions the DecisionProvider answering for this player
      */
-    public Player(String name, Game game) {
+    public Player(String name, int seat, Game game, DecisionProvider decisions) {
         this.name = name;
+        this.seat = seat;
         this.game = game;
+        this.decisions = decisions;
         this.hand = new Hand(new ArrayList<>());
 
     }
 
+    /**
+     * getter for the player's seat
+     * @return int index of the player in the game
+     */
+    public int getSeat() {
+        return seat;
+    }
+
+    /**
+     * getter for the player's DecisionProvider
+     * @return DecisionProvider answering for this player
+     */
+    public DecisionProvider getDecisions() {
+        return decisions;
+    }
+
     /**
      * This function does the following:
-     * - Attempts to draw num number of cards
-     * - If a EmptyDeckException is caught then the play area
-     *   must be shuffled into the deck. Note this a function of game class
-     * - Adds each drawn card to hand
+     * - Draws num number of cards from the deck straight into hand,
+     *   the deck shuffles the play area back in by itself if it runs out
+     * - Tells the game which cards were drawn
+     * - Times the draw for Metrics and GameEvents when they are on
      * @param num Number of cards to be drawn
      */
     public void drawCards(int num) {
-        int cardsDrawn = 0;
-        while (cardsDrawn != num) {
-            try {
-                hand.addCard(game.getDeck().drawCard());
-                cardsDrawn++;
-            } catch (Deck.EmptyDeckException e) {
-                game.shufflePlayAreaIntoDeck();
-            }
+        GameEvents.Draw event = new GameEvents.Draw();
+        long start = Metrics.ENABLED ? System.nanoTime() : 0;
+        event.begin();
+        int drawn = game.getDeck().draw(num, hand);
+        event.end();
+        if (Metrics.ENABLED) {
+            Metrics.DRAW.record(System.nanoTime() - start, drawn);
+        }
+        if (event.shouldCommit()) {
+            event.seed = game.getSeed();
+            event.seat = seat;
+            event.requested = num;
+            event.drawn = drawn;
+            event.commit();
+        }
+        game.recordDraws(this, drawn);
+    }
+
+    /**
+     * asks this player's DecisionProvider who to skip, Skip uses this so the time is counted as deciding
+     * @return int index of the player to skip
+     */
+    public int chooseSkip() {
+        if (!timing) {
+            return decisions.chooseSkip(game);
+        }
+        long start = System.nanoTime();
+        int index = decisions.chooseSkip(game);
+        recordDecision(System.nanoTime() - start);
+        return index;
+    }
+
+    /**
+     * asks this player's DecisionProvider which card to play
+     * @return int index of the card in hand
+     */
+    private int chooseCard() {
+        if (!timing) {
+            return decisions.chooseCard(game, hand);
+        }
+        long start = System.nanoTime();
+        int choice = decisions.chooseCard(game, hand);
+        recordDecision(System.nanoTime() - start);
+        return choice;
+    }
+
+    /**
+     * Plays one turn, see playTurn.
+     * When metrics are enabled or a flight recording wants Turn events, the turn is timed
+     * and the time spent deciding is split from the time spent in the engine.
+     */
+    public void takeTurn() {
+        if (!beginTurnTiming()) {
+            playTurn();
+            return;
+        }
+        try {
+            playTurn();
+        } finally {
+            endTurnTiming();
+        }
+    }
+
+    /**
+     * Starts timing a turn if metrics are enabled or a flight recording wants Turn events.
+     * takeTurn uses this, and so does UnusServer, which plays a turn over several calls
+     * and tells the player how long it waited for each answer with recordDecision.
+     * @return true if the turn is being timed, endTurnTiming then has to be called when it ends
+     */
+    public boolean beginTurnTiming() {
+        GameEvents.Turn event = new GameEvents.Turn();
+        if (!Metrics.ENABLED && !event.isEnabled()) { return false; }
+        timing = true;
+        decisionNanos = 0;
+        turnEvent = event;
+        event.begin();
+        turnStart = System.nanoTime();
+        return true;
+    }
+
+    /**
+     * adds time spent deciding to the turn being timed, nothing happens if the turn is not being timed
+     * @param nanos time spent deciding
+     */
+    public void recordDecision(long nanos) {
+        if (timing) {
+            decisionNanos += nanos;
         }
+    }
 
+    /**
+     * Ends the turn being timed and records it, the time not spent deciding is the engine's.
+     * Nothing happens if the turn is not being timed.
+     */
+    public void endTurnTiming() {
+        if (!timing) { return; }
+        long total = System.nanoTime() - turnStart;
+        GameEvents.Turn event = turnEvent;
+        event.end();
+        timing = false;
+        turnEvent = null;
+        if (Metrics.ENABLED) {
+            Metrics.TURN_DECISION.record(decisionNanos, 1);
+            Metrics.TURN_ENGINE.record(total - decisionNanos, 1);
+        }
+        if (event.shouldCommit()) {
+            event.seed = game.getSeed();
+            event.seat = seat;
+            event.decisionNanos = decisionNanos;
+            event.engineNanos = total - decisionNanos;
+            event.commit();
+        }
     }
 
     /**
      * Performs IO to figure out what moves the user
      * wants to make. It does this as follows:
-     * - Loops until the user has successfully played a card
-     * - Prints out "Play area:\n"
-     * - Prints out the top card
-     * - Checks to see if the hand has any matches against the top card
-     *   - If it does not then print: "Your hand had no matches, a card was drawn."
-     *   - Then draw 1 card
-     * - Then prints "Hand:\n"
-     * - Then prints out the hand
-     * - If the hand still has no matches then print: "Your hand still has no matches your turn is being passed"
-     *   and ends the turn
-     * - Otherwise it asks the user: "Which card would you like to play?" using the game::interact function
-     * - The code loops until the user successfully answers this question, the three criteria are:
-     *   - A valid int, if not print:
-     *     "$cardNumStr is not a valid integer, please try again."
-     *     where cardNumStr is the user input
+     * - Starts the turn with startTurn, which draws a card if nothing matches,
+     *   if there is still nothing to play the turn ends
+     * - Otherwise it asks the player's DecisionProvider which card to play
+     * - The code loops until the player successfully answers this question, the two criteria are:
      *   - A valid match, if not print:
      *     "Card $cardNumStr cannot currently be played, please try again."
      *     where cardNumStr is the user input
      *   - A valid index, if not print:
      *     "$cardNumStr is not a valid index, please try again."
+     *   and the hand is shown again before asking again
      */
-    public void takeTurn() {
-        boolean cardPlayed = false;
-        boolean cardDrawn = false;
-        System.out.println("Play area:\n");
-        System.out.println(game.getTopCard());
-
-        while (!cardPlayed) {
-            // draw a card if the user has no matches and hasn't drawn a card
-            if (hand.noMatches(game.getTopCard()) && !cardDrawn && !(game.getTopCard() instanceof None)) {
-                System.out.prntln("Your hand had no matches, a card was drawn.");
-                drawCards(1);
-                cardDrawn = true;
-            }
-            // if the user still has no matches after drawing a card, show the hand and pass to next player
-            else if (hand.noMatches(game.getTopCard()) && !(game.getTopCard() instanceof None)) {
-                System.out.println(game.getPlayers().current() + " Hand: \n");
-                System.out.println(hand);
-                System.out.println("Your hand still has no matches your turn is being passed");
-                break;
-            }
-            // otherwise, let the user play
-            else {
-                System.out.println(game.getPlayers().current() + " Hand: \n");
-                System.out.println(hand);
-                String userInput = game.interact("Which card would you like to play?");
-                try {
-                    hand.playCard(game, Integer.parseInt(userInput));
-                    cardPlayed = true;
-                } catch (NumberFormatException e) {
-                    System.out.println(userInput + " is not a valid integer, please try again.");
-                } catch (IndexOutOfBoundsException i) {
-                    System.out.println(userInput + " is not a valid index, please try again.");
-                } catch (Card.CannotPlayCardException c) {
-                    System.out.println("Card " + userInput + " cannot currently be played, please try again.");
-                }
+    private void playTurn() {
+        if (!startTurn()) { return; }
+        GameOutput out = game.getOutput();
+        while (true) {
+            int choice = chooseCard();
+            try {
+                hand.playCard(game, choice);
+                return;
+            } catch (IndexOutOfBoundsException i) {
+                out.println(choice + " is not a valid index, please try again.");
+            } catch (Card.CannotPlayCardException c) {
+                out.println("Card " + choice + " cannot currently be played, please try again.");
             }
+            showHand();
         }
     }
 
+    /**
+     * Starts a turn, everything before the player is asked which card to play.
+     * It does this as follows:
+     * - Prints out "Play area:\n"
+     * - Prints out the top card
+     * - Checks to see if the hand has any matches against the top card
+     *   - If it does not then print: "Your hand had no matches, a card was drawn."
+     *   - Then draw 1 card
+     * - Then shows the hand
+     * - If the hand still has no matches then print: "Your hand still has no matches your turn is being passed"
+     * UnusServer uses this to play turns without blocking on a DecisionProvider.
+     * @return true if the player has a card to play, false if their turn is being passed
+     */
+    public boolean startTurn() {
+        GameOutput out = game.getOutput();
+        out.println("Play area:\n");
+        out.println(game.getTopCard());
+        boolean noMatches = hand.noMatches(game.getTopCard()) && !(game.getTopCard() instanceof None);
+        if (noMatches) {
+            out.println("Your hand had no matches, a card was drawn.");
+            drawCards(1);
+            noMatches = hand.noMatches(game.getTopCard());
+        }
+        showHand();
+        if (noMatches) {
+            out.println("Your hand still has no matches your turn is being passed");
+        }
+        return !noMatches;
+    }
+
+    /**
+     * prints "$player Hand: \n" and then the hand
+     */
+    public void showHand() {
+        GameOutput out = game.getOutput();
+        out.println(game.getPlayers().current() + " Hand: \n");
+        out.println(hand);
+    }
+
 
     /**
      * checks if the players hand is empty
@@ -7,17 +7,18 @@
 
 public final class Reverse extends Card {
     public Reverse(Color cardColor) {
-        super(cardColor);
+        super(cardColor, CardCode.reverse(cardColor));
     }
 
     /**
      * This function calls the reverse function
-     * on the UnusIterator
+     * on the UnusIterator and tells the game's listener
      * @param game the game currently being played
      */
     @Override
-    public void dAction(Game game) {
+    public void doAction(Game game) {
         game.getPlayers().reverse();
+        game.getListener().onReverse(game.getPlayers().getCurIndex());
     }
 
     /**
@@ -0,0 +1,38 @@
+/**
+ * Corey Walker
+ * A computer player that saves its wild cards
+ * - plays the first matching card that is not wild
+ * - only plays a wild card, Wild before Wild Draw 4, when nothing else matches
+ * - always skips whoever would play next, like GreedyBot
+ * It keeps no state, so one SaveWildsBot can sit in any number of seats and games at once.
+ */
+public final class SaveWildsBot implements DecisionProvider {
+    private static final long WILDS = CardCode.bit(CardCode.WILD) | CardCode.bit(CardCode.WILD_DRAW_4);
+
+    private final GreedyBot skips = new GreedyBot();
+
+    /**
+     * finds the first matching card, leaving wild cards for last
+     * @param game the game currently being played
+     * @param hand the bot's hand
+     * @return index of the chosen card, 0 if there is none
+     */
+    @Override
+    public int chooseCard(Game game, Hand hand) {
+        long playable = hand.playableFaces(game.getTopCard());
+        long colored = playable & ~WILDS;
+        long wanted = colored != 0 ? colored
+                : (playable & CardCode.bit(CardCode.WILD)) != 0 ? CardCode.bit(CardCode.WILD) : playable;
+        return Math.max(hand.firstOf(wanted), 0);
+    }
+
+    /**
+     * skips the player who would otherwise go next
+     * @param game the game currently being played
+     * @return index of the player to skip
+     */
+    @Override
+    public int chooseSkip(Game game) {
+        return skips.chooseSkip(game);
+    }
+}
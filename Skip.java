@@ -1,5 +1,3 @@
-import java.util.ArrayList;
-
 /**
  * Corey Walker
  * Class for skip cards
@@ -10,67 +8,57 @@ import java.util.ArrayList;
 public final class Skip extends Card {
 
     public Skip(Color cardColor) {
-        super(cardColor);
+        super(cardColor, CardCode.skip(cardColor));
     }
 
     /**
      * Skip can skip any player except for the player who played it.
      * This function accomplishes the following:
-     * - Prompts the user who they would like to skip with the following message:
-     *   "Who would you like to skip? (n)ext or (s)pecific user?"
-     * - If the answer is "n" then the next player is skipped
-     * - If the answer is "s" then a specific player is skipped
-     *   - The user must then be prompted with the following prompt:
-     *     "Please choose from the following numbers: $playerNumbers"
-     *     where playerNumbers are all the indices of players other than the current player separated by spaces
-     *   - You must loop until they give a valid index, if they fail output the following message:
-     *     "$playerNumber is not valid. $playersToChoose"
-     *     where playerNumber is the number they input
-     *   - If they give an index that is not a number then output the following message and loop again:
-     *     "$n not an int, please try again."
-     *     where n is the index they input
-     * - You must loop until they give you a valid command, if they fail output the following message:
-     *   "$answer is not a recognized command, please try again."
+     * - Asks the current player's DecisionProvider who they would like to skip
+     * - If the answer is the index of any player other than the current player then that player is skipped
+     * - Otherwise output the following message and ask again:
+     *   "$playerNumber is not valid."
+     *   where playerNumber is the index they chose
      * @param game the instance of the game being played
      */
     @Override
     public void doAction(Game game) {
+        UnusIterator<Player> players = game.getPlayers();
+        Player player = players.current();
         boolean skipSuccessful = false;
-        String userInput;
         do {
-            userInput = game.interact("Who would you like to skip? (n)ext or (s)pecific user?");
-            if (userInput.equals("n")) {
-                game.getPlayers().skip(game.getPlayers().getCurIndex() + game.getPlayers().getDir());
+            int index = player.chooseSkip();
+            if (isValidTarget(game, index)) {
+                skipPlayer(game, index);
                 skipSuccessful = true;
-            } else if (userInput.equals("s")) {
-                StringBuilder validIndexes = new StringBuilder();
-                ArrayList<Integer> indices = new ArrayList<>();
-                for (int i = 0; i < game.getNumPlayers(); i++) {
-                    if (game.getPlayers().getCurIndex() != i) {
-                        validIndexes.append(i).append(" ");
-                        indices.add(i);
-                    }
-                }
-                userInput = game.interact("Please choose from the following numbers: " + validIndexes);
-                try {
-                    int index = Integer.parseInt(userInput);
-                    if (indices.contains(index)) {
-                        game.getPlayers().skip(index);
-                        skipSuccessful = true;
-                    } else {
-                        System.out.println(index + " is not valid. " + validIndexes);
-                    }
-                } catch (NumberFormatException e) {
-                    System.out.println(userInput + " not an int, please try again.");
-                }
-                if (!skipSuccessful) {
-                    System.out.println(userInput + " is not a recognized command, please try again.");
-                }
-
+            } else {
+                game.getOutput().println(index + " is not valid.");
             }
         } while (!skipSuccessful);
     }
 
+    /**
+     * checks who can be skipped, any player except the current one
+     * @param game the instance of the game being played
+     * @param index index of the player to skip
+     * @return true if that player can be skipped
+     */
+    public static boolean isValidTarget(Game game, int index) {
+        return index >= 0 && index < game.getNumPlayers() && index != game.getPlayers().getCurIndex();
+    }
+
+    /**
+     * skips a player the current player chose, which must be a valid target,
+     * and tells the game's listener
+     * @param game the instance of the game being played
+     * @param index index of the player to skip
+     */
+    public void skipPlayer(Game game, int index) {
+        UnusIterator<Player> players = game.getPlayers();
+        players.skip(index);
+        game.getListener().onSkip(players.getCurIndex(), index, players.getSkips(index));
+    }
+
     /**
      * Check if the top card of the playArea is a skip card
      * @param other top card of playArea
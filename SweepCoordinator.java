@@ -0,0 +1,331 @@
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Corey Walker
+ * Runs a seeded sweep of headless games across several worker JVMs on this machine,
+ * so no one heap or garbage collector has to hold the whole sweep.
+ * - the sweep is every combination of player count, deck count, and strategy, each played for some games
+ * - each entry's games are cut into shards, which go on one queue
+ * - every worker JVM (see SweepWorker) has a thread here that gives it one shard at a time over its
+ *   standard input and reads the shard's TournamentStats back from its standard output
+ * - results are merged into their entry as each shard comes back
+ * If a worker dies, or sends back something that cannot be read, its shard goes back on the queue
+ * and a new worker is started in its place. A worker that has not answered by its shard's deadline
+ * is killed by a watchdog and treated the same way, so a hung worker cannot hang the sweep.
+ * A shard that kills MAX_ATTEMPTS workers fails the sweep.
+ * Entry e is seeded with Tournament.gameSeed(seed, e) and its game k with Tournament.gameSeed of that,
+ * so a sweep gives the same results no matter how many workers it has or which of them crash.
+ */
+public final class SweepCoordinator {
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long DEFAULT_SHARD_TIMEOUT_MILLIS = 10 * 60 * 1000;
+
+    private final List<Entry> entries = new ArrayList<>();
+    private final LinkedBlockingQueue<Shard> queue = new LinkedBlockingQueue<>();
+    private final AtomicInteger shardsLeft = new AtomicInteger();
+    private final AtomicInteger workersStarted = new AtomicInteger();
+    private final AtomicInteger workersLost = new AtomicInteger();
+    private final long seed;
+    private final long gamesPerShard;
+    private final long shardTimeoutMillis;
+    private final ScheduledExecutorService watchdog;
+    private volatile Throwable failure;
+
+    /**
+     * One entry of the sweep, all of its games are played at the same kind of table
+     */
+    public static final class Entry {
+        private final int numPlayers;
+        private final int numDecks;
+        private final String strategy;
+        private final long numGames;
+        private final long seed;
+        private final TournamentStats stats;
+
+        private Entry(int numPlayers, int numDecks, String strategy, long numGames, long seed) {
+            this.numPlayers = numPlayers;
+            this.numDecks = numDecks;
+            this.strategy = strategy;
+            this.numGames = numGames;
+            this.seed = seed;
+            this.stats = new TournamentStats(numPlayers);
+        }
+
+        /**
+         * getter for the merged results of every shard that has come back
+         * @return TournamentStats of the entry, only read it once the sweep is over
+         */
+        public TournamentStats getStats() {
+            return stats;
+        }
+
+        @Override
+        public String toString() {
+            return numPlayers + " players, " + numDecks + " decks, " + strategy;
+        }
+    }
+
+    /**
+     * A piece of one entry, games [from, to)
+     */
+    private static final class Shard {
+        private final int id;
+        private final Entry entry;
+        private final long from;
+        private final long to;
+        private int attempts;
+
+        private Shard(int id, Entry entry, long from, long to) {
+            this.id = id;
+            this.entry = entry;
+            this.from = from;
+            this.to = to;
+        }
+
+        private String command() {
+            return "shard " + id + " " + entry.numPlayers + " " + entry.numDecks + " " + entry.strategy
+                    + " " + entry.seed + " " + from + " " + to + "\n";
+        }
+    }
+
+    /**
+     * constructor for an empty sweep where a worker has 10 minutes to play a shard
+     * @param seed seed every entry's seed is derived from
+     * @param gamesPerShard how many games each shard has
+     */
+    public SweepCoordinator(long seed, long gamesPerShard) {
+        this(seed, gamesPerShard, DEFAULT_SHARD_TIMEOUT_MILLIS);
+    }
+
+    /**
+     * constructor for an empty sweep
+     * @param seed seed every entry's seed is derived from
+     * @param gamesPerShard how many games each shard has
+     * @param shardTimeoutMillis how long a worker has to send back a shard before it is killed
+     */
+    public SweepCoordinator(long seed, long gamesPerShard, long shardTimeoutMillis) {
+        this.seed = seed;
+        this.gamesPerShard = gamesPerShard;
+        this.shardTimeoutMillis = shardTimeoutMillis;
+        ScheduledThreadPoolExecutor watchdog = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "sweep-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        watchdog.setRemoveOnCancelPolicy(true);
+        this.watchdog = watchdog;
+    }
+
+    /**
+     * adds an entry to the sweep and cuts it into shards
+     * @param numPlayers players at each table
+     * @param numDecks standard decks in each game
+     * @param strategy name of the strategy every player uses, see SweepWorker.strategy
+     * @param numGames how many games to play
+     * @return Entry whose stats fill in as the sweep runs
+     */
+    public Entry add(int numPlayers, int numDecks, String strategy, long numGames) {
+        SweepWorker.strategy(strategy);
+        Entry entry = new Entry(numPlayers, numDecks, strategy, numGames,
+                Tournament.gameSeed(seed, entries.size()));
+        entries.add(entry);
+        for (long from = 0; from < numGames; from += gamesPerShard) {
+            queue.add(new Shard(shardsLeft.getAndIncrement(), entry, from, Math.min(from + gamesPerShard, numGames)));
+        }
+        return entry;
+    }
+
+    /**
+     * getter for the entries of the sweep
+     * @return List of every Entry in the order they were added
+     */
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * getter for how many worker JVMs were started, including replacements
+     * @return int workers started
+     */
+    public int getWorkersStarted() {
+        return workersStarted.get();
+    }
+
+    /**
+     * getter for how many workers died before finishing their shard
+     * @return int workers lost
+     */
+    public int getWorkersLost() {
+        return workersLost.get();
+    }
+
+    /**
+     * Plays the whole sweep and returns once every shard is merged
+     * @param numWorkers number of worker JVMs to keep running
+     * @param workerJvmArgs extra JVM options for the workers, such as -Xmx256m
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public void run(int numWorkers, List<String> workerJvmArgs) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(numWorkers);
+        for (int i = 0; i < numWorkers; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    feedWorkers(workerJvmArgs);
+                } catch (Throwable t) {
+                    failure = t;
+                } finally {
+                    done.countDown();
+                }
+            }, "sweep-worker-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        done.await();
+        if (failure != null) {
+            throw new IllegalStateException("sweep failed", failure);
+        }
+    }
+
+    /**
+     * Keeps one worker JVM busy until there are no shards left, starting another whenever it dies
+     * @param workerJvmArgs extra JVM options for the workers
+     * @throws IOException if no worker can be started
+     * @throws InterruptedException if interrupted while waiting
+     */
+    private void feedWorkers(List<String> workerJvmArgs) throws IOException, InterruptedException {
+        while (shardsLeft.get() > 0 && failure == null) {
+            Process process = startWorker(workerJvmArgs);
+            Writer toWorker = new OutputStreamWriter(process.getOutputStream(), StandardCharsets.US_ASCII);
+            DataInputStream fromWorker = new DataInputStream(new BufferedInputStream(process.getInputStream(), 1 << 16));
+            try {
+                Shard shard;
+                while ((shard = queue.poll(100, TimeUnit.MILLISECONDS)) != null || shardsLeft.get() > 0) {
+                    if (shard == null || failure != null) {
+                        if (failure != null) { return; }
+                        continue;
+                    }
+                    if (!runShard(shard, process, toWorker, fromWorker)) {
+                        break;
+                    }
+                }
+            } finally {
+                try {
+                    toWorker.write("exit\n");
+                    toWorker.close();
+                } catch (IOException e) {
+                    // the worker is already gone
+                }
+                process.destroy();
+                process.waitFor(5, TimeUnit.SECONDS);
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    /**
+     * Gives one shard to a worker and merges its result.
+     * If the worker has not answered by the deadline the watchdog kills it, which ends the read.
+     * @param shard shard to play
+     * @param process the worker
+     * @param toWorker the worker's standard input
+     * @param fromWorker the worker's standard output
+     * @return true if the shard was played, false if the worker died or hung and the shard went back on the queue
+     */
+    private boolean runShard(Shard shard, Process process, Writer toWorker, DataInputStream fromWorker) {
+        shard.attempts++;
+        TournamentStats result;
+        ScheduledFuture<?> deadline = watchdog.schedule(process::destroyForcibly,
+                shardTimeoutMillis, TimeUnit.MILLISECONDS);
+        try {
+            toWorker.write(shard.command());
+            toWorker.flush();
+            int id = fromWorker.readInt();
+            result = TournamentStats.read(fromWorker);
+            if (id != shard.id) {
+                throw new IOException("worker answered shard " + id + " instead of " + shard.id);
+            }
+        } catch (IOException | RuntimeException e) {
+            workersLost.incrementAndGet();
+            String lost = deadline.isDone() && !deadline.isCancelled() ? "worker timed out" : "worker lost";
+            if (shard.attempts >= MAX_ATTEMPTS) {
+                failure = new IllegalStateException("shard " + shard.id + " of " + shard.entry
+                        + " failed " + shard.attempts + " times, last time: " + lost, e);
+            } else {
+                System.err.println(lost + " on shard " + shard.id + " of " + shard.entry + ", dispatching it again");
+                queue.add(shard);
+            }
+            return false;
+        } finally {
+            deadline.cancel(false);
+        }
+        synchronized (shard.entry) {
+            shard.entry.stats.merge(result);
+        }
+        shardsLeft.decrementAndGet();
+        return true;
+    }
+
+    /**
+     * starts a worker JVM with the same java and class path as this one
+     * @param workerJvmArgs extra JVM options
+     * @return Process of the worker, its standard error goes to ours
+     * @throws IOException if it cannot be started
+     */
+    private Process startWorker(List<String> workerJvmArgs) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(workerJvmArgs);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add("SweepWorker");
+        workersStarted.incrementAndGet();
+        return new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+    }
+
+    /**
+     * Sweeps 2, 3, 4, 6, and 10 players, 1 and 2 decks, and every built in strategy
+     * @param args number of workers, games per entry, and seed,
+     *             defaults to one worker per core, 20000 games, and a random seed
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int numWorkers = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        long gamesPerEntry = args.length > 1 ? Long.parseLong(args[1]) : 20_000;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : new SplittableRandom().nextLong();
+        SweepCoordinator sweep = new SweepCoordinator(seed, 5_000);
+        for (int numPlayers : new int[] {2, 3, 4, 6, 10}) {
+            for (int numDecks = 1; numDecks <= 2; numDecks++) {
+                for (String strategy : new String[] {"greedy", "color", "saveWilds", "leaderSkip"}) {
+                    sweep.add(numPlayers, numDecks, strategy, gamesPerEntry);
+                }
+            }
+        }
+        long start = System.nanoTime();
+        sweep.run(numWorkers, List.of("-Xmx256m", "-XX:+UseSerialGC"));
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println("Seed: " + seed);
+        long games = 0;
+        for (Entry entry : sweep.getEntries()) {
+            System.out.println(entry + ": " + entry.getStats().progress());
+            games += entry.getStats().getGames();
+        }
+        System.out.printf("%d games in %.1fs on %d workers, %d started, %d lost%n",
+                games, seconds, numWorkers, sweep.getWorkersStarted(), sweep.getWorkersLost());
+    }
+}
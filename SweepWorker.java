@@ -0,0 +1,76 @@
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Corey Walker
+ * A worker JVM started by SweepCoordinator. It plays shards of headless games one after another.
+ * Shards come in on standard input, one line each:
+ * "shard id numPlayers numDecks strategy seed firstGame lastGame"
+ * plays games [firstGame, lastGame), game k seeded with Tournament.gameSeed(seed, k),
+ * then writes the shard id (int) and its TournamentStats (see TournamentStats::write) to standard output.
+ * A line saying "exit", or the end of standard input, stops the worker.
+ * Standard output only carries results, anything for people to read goes to standard error.
+ */
+public final class SweepWorker {
+    private SweepWorker() {}
+
+    /**
+     * finds a built in stateless strategy by name
+     * @param name greedy, color, saveWilds, or leaderSkip
+     * @return DecisionProvider for that strategy
+     */
+    public static DecisionProvider strategy(String name) {
+        switch (name) {
+            case "greedy": return new GreedyBot();
+            case "color": return new ColorBot();
+            case "saveWilds": return new SaveWildsBot();
+            case "leaderSkip": return new LeaderSkipBot();
+            default: throw new IllegalArgumentException("unknown strategy " + name);
+        }
+    }
+
+    /**
+     * plays the games of one shard
+     * @param numPlayers players at each table
+     * @param numDecks standard decks in each game
+     * @param strategy strategy every player uses
+     * @param seed seed of the sweep entry the shard is part of
+     * @param firstGame number of the first game
+     * @param lastGame number one past the last game
+     * @return TournamentStats of the shard's games
+     */
+    public static TournamentStats playShard(int numPlayers, int numDecks, String strategy, long seed,
+                                            long firstGame, long lastGame) {
+        List<DecisionProvider> seats = Utils.repeat(numPlayers, strategy(strategy));
+        TournamentStats stats = new TournamentStats(numPlayers);
+        for (long k = firstGame; k < lastGame; k++) {
+            Game game = new Game(seats, GameOutput.NONE, Tournament.gameSeed(seed, k), stats, numDecks);
+            game.start();
+            stats.add(game.getResult());
+        }
+        return stats;
+    }
+
+    public static void main(String[] args) throws IOException {
+        BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.US_ASCII));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(System.out, 1 << 16));
+        String line;
+        while ((line = in.readLine()) != null && !line.equals("exit")) {
+            String[] words = line.split(" ");
+            if (words.length != 8 || !words[0].equals("shard")) {
+                System.err.println("worker: ignoring " + line);
+                continue;
+            }
+            TournamentStats stats = playShard(Integer.parseInt(words[2]), Integer.parseInt(words[3]), words[4],
+                    Long.parseLong(words[5]), Long.parseLong(words[6]), Long.parseLong(words[7]));
+            out.writeInt(Integer.parseInt(words[1]));
+            stats.write(out);
+            out.flush();
+        }
+    }
+}
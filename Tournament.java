@@ -0,0 +1,207 @@
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * Corey Walker
+ * Runs many independent headless games in parallel on a ForkJoinPool.
+ * - the range of games is split in half until it is small enough for one worker
+ * - each worker plays its games into its own TournamentStats, which also watches every game it plays
+ * - the halves are merged together as they are joined, so there is no shared lock
+ * - while the games run, run can hand out snapshots of the totals so far every so often
+ * Every game gets its own Game, Deck, and UnusIterator, so the only things shared
+ * between threads are the DecisionProviders, which must be stateless.
+ * Game k is seeded with the k-th value of a SplittableRandom seeded with the tournament seed,
+ * so any game can be replayed on its own no matter which thread played it.
+ */
+public final class Tournament {
+    private static final int GAMES_PER_TASK = 256;
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private final List<? extends DecisionProvider> seats;
+    private final long numGames;
+    private final long seed;
+    // finished batches waiting to be added to the next snapshot, null when no one wants snapshots
+    private ConcurrentLinkedQueue<TournamentStats> finished;
+
+    /**
+     * constructor for a tournament with a random seed
+     * @param seats who makes the decisions for each seat, shared by every game
+     * @param numGames how many games to play
+     */
+    public Tournament(List<? extends DecisionProvider> seats, long numGames) {
+        this(seats, numGames, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * constructor for a tournament
+     * @param seats who makes the decisions for each seat, shared by every game
+     * @param numGames how many games to play
+     * @param seed seed every game's seed is derived from
+     */
+    public Tournament(List<? extends DecisionProvider> seats, long numGames, long seed) {
+        this.seats = seats;
+        this.numGames = numGames;
+        this.seed = seed;
+    }
+
+    /**
+     * getter for the tournament seed
+     * @return long seed of this tournament
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Finds the seed of one game without playing any of the games before it.
+     * A SplittableRandom seeded with s returns mix(s + gamma), mix(s + 2 * gamma), ...
+     * so starting a new one at s + k * gamma gives the k-th value directly.
+     * @param gameNumber which game of the tournament
+     * @return long seed of that game
+     */
+    public long gameSeed(long gameNumber) {
+        return gameSeed(seed, gameNumber);
+    }
+
+    /**
+     * seed of one game of any run of games seeded with seed, see gameSeed
+     * @param seed seed of the whole run
+     * @param gameNumber which game of the run
+     * @return long seed of that game
+     */
+    public static long gameSeed(long seed, long gameNumber) {
+        return new SplittableRandom(seed + gameNumber * GOLDEN_GAMMA).nextLong();
+    }
+
+    /**
+     * plays every game on the common ForkJoinPool
+     * @return TournamentStats of all the games
+     */
+    public TournamentStats run() {
+        return run(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * plays every game on the given pool
+     * @param pool pool to play the games on
+     * @return TournamentStats of all the games
+     */
+    public TournamentStats run(ForkJoinPool pool) {
+        return pool.invoke(new Games(0, numGames));
+    }
+
+    /**
+     * Plays every game on the given pool, giving onSnapshot the totals so far every period.
+     * Workers hand a copy of each finished batch to a queue and the calling thread merges
+     * them while it waits, so the workers never wait on a snapshot.
+     * @param pool pool to play the games on
+     * @param period time between snapshots
+     * @param unit unit of period
+     * @param onSnapshot given the totals so far, on the calling thread, it may keep them
+     * @return TournamentStats of all the games
+     */
+    public TournamentStats run(ForkJoinPool pool, long period, TimeUnit unit, Consumer<TournamentStats> onSnapshot) {
+        finished = new ConcurrentLinkedQueue<>();
+        ForkJoinTask<TournamentStats> task = pool.submit(new Games(0, numGames));
+        TournamentStats live = new TournamentStats(seats.size());
+        try {
+            while (true) {
+                try {
+                    return task.get(period, unit);
+                } catch (TimeoutException e) {
+                    TournamentStats batch;
+                    while ((batch = finished.poll()) != null) {
+                        live.merge(batch);
+                    }
+                    onSnapshot.accept(live.copy());
+                }
+            }
+        } catch (InterruptedException e) {
+            task.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting for the tournament", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("a game failed", e.getCause());
+        } finally {
+            finished = null;
+        }
+    }
+
+    /**
+     * plays a single headless game
+     * @param gameNumber which game of the tournament this is
+     * @param stats stats of the worker playing the game, they watch it
+     * @return GameResult of the game
+     */
+    private GameResult play(long gameNumber, TournamentStats stats) {
+        Game game = new Game(seats, GameOutput.NONE, gameSeed(gameNumber), stats);
+        game.start();
+        return game.getResult();
+    }
+
+    /**
+     * Task that plays the games numbered [from, to)
+     */
+    private final class Games extends RecursiveTask<TournamentStats> {
+        private static final long serialVersionUID = 1L;
+
+        private final long from;
+        private final long to;
+
+        Games(long from, long to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected TournamentStats compute() {
+            if (to - from <= GAMES_PER_TASK) {
+                TournamentStats stats = new TournamentStats(seats.size());
+                for (long i = from; i < to; i++) {
+                    stats.add(play(i, stats));
+                }
+                ConcurrentLinkedQueue<TournamentStats> queue = finished;
+                if (queue != null) {
+                    queue.offer(stats.copy());
+                }
+                return stats;
+            }
+            long mid = (from + to) >>> 1;
+            Games left = new Games(from, mid);
+            left.fork();
+            TournamentStats right = new Games(mid, to).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    /**
+     * Plays a tournament of GreedyBots and prints the results
+     * @param args number of games, number of players, and seed, defaults to 100000 games of 3 players with a random seed
+     */
+    public static void main(String[] args) {
+        Metrics.dumpOnExit();
+        long numGames = args.length > 0 ? Long.parseLong(args[0]) : 100_000;
+        int numPlayers = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        Tournament tournament = args.length > 2
+                ? new Tournament(Utils.repeat(numPlayers, new GreedyBot()), numGames, Long.parseLong(args[2]))
+                : new Tournament(Utils.repeat(numPlayers, new GreedyBot()), numGames);
+
+        long start = System.nanoTime();
+        TournamentStats stats = tournament.run(ForkJoinPool.commonPool(), 1, TimeUnit.SECONDS,
+                snapshot -> System.out.println(snapshot.progress()));
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println("Seed: " + tournament.getSeed());
+        System.out.println(stats);
+        System.out.printf("%.0f games/sec on %d threads%n",
+                stats.getGames() / seconds, ForkJoinPool.commonPool().getParallelism());
+    }
+}
@@ -0,0 +1,259 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Corey Walker
+ * Running totals over many finished games.
+ * - wins by seat, turns, cards drawn, and reshuffles
+ * - a Histogram of game length, of reshuffles per game, of cards drawn because of a DrawN per game,
+ *   and of how deep skips were stacked every time a Skip was played
+ * Each worker keeps its own TournamentStats and they are merged together at the end,
+ * so nothing here is ever shared between threads while games are being played.
+ * It is also a GameListener so it can watch its worker's games for the penalty draws and skips,
+ * which a GameResult does not have. It only counts a few numbers per event, so it is always on.
+ */
+public final class TournamentStats implements GameListener {
+    private final long[] winsBySeat;
+    private long games;
+    private long turns;
+    private long cardsDrawn;
+    private long reshuffles;
+    private int longestGame;
+    private final Histogram gameLengths = new Histogram(10, 100);
+    private final Histogram reshufflesPerGame = new Histogram(1, 16);
+    private final Histogram drawNCardsPerGame = new Histogram(2, 50);
+    private final Histogram skipDepths = new Histogram(1, 16);
+
+    // cards drawn because of a DrawN in the game being watched
+    private int drawNCards;
+
+    /**
+     * constructor for empty stats
+     * @param numPlayers number of seats at each table
+     */
+    public TournamentStats(int numPlayers) {
+        this.winsBySeat = new long[numPlayers];
+    }
+
+    /**
+     * Adds a finished game to the totals.
+     * The DrawN draws counted while watching the game are added with it.
+     * @param result result of the game
+     */
+    public void add(GameResult result) {
+        games++;
+        winsBySeat[result.getWinnerSeat()]++;
+        turns += result.getTurns();
+        cardsDrawn += result.getCardsDrawn();
+        reshuffles += result.getReshuffles();
+        longestGame = Math.max(longestGame, result.getTurns());
+        gameLengths.add(result.getTurns());
+        reshufflesPerGame.add(result.getReshuffles());
+        drawNCardsPerGame.add(drawNCards);
+        drawNCards = 0;
+    }
+
+    @Override
+    public void onStart(int numPlayers, int numDecks, long seed) {
+        drawNCards = 0;
+    }
+
+    @Override
+    public void onPenaltyDraw(int seat, int face) {
+        drawNCards++;
+    }
+
+    @Override
+    public void onSkip(int seat, int target, int depth) {
+        skipDepths.add(depth);
+    }
+
+    /**
+     * adds all the totals from other into these stats
+     * @param other stats from another worker
+     * @return this, so merges can be chained
+     */
+    public TournamentStats merge(TournamentStats other) {
+        games += other.games;
+        for (int i = 0; i < winsBySeat.length; i++) {
+            winsBySeat[i] += other.winsBySeat[i];
+        }
+        turns += other.turns;
+        cardsDrawn += other.cardsDrawn;
+        reshuffles += other.reshuffles;
+        longestGame = Math.max(longestGame, other.longestGame);
+        gameLengths.merge(other.gameLengths);
+        reshufflesPerGame.merge(other.reshufflesPerGame);
+        drawNCardsPerGame.merge(other.drawNCardsPerGame);
+        skipDepths.merge(other.skipDepths);
+        return this;
+    }
+
+    /**
+     * writes the totals so read can make a copy of them, in another process if need be
+     * @param out where to write them
+     * @throws IOException if out cannot be written
+     */
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(winsBySeat.length);
+        for (long seatWins : winsBySeat) {
+            out.writeLong(seatWins);
+        }
+        out.writeLong(games);
+        out.writeLong(turns);
+        out.writeLong(cardsDrawn);
+        out.writeLong(reshuffles);
+        out.writeInt(longestGame);
+        gameLengths.write(out);
+        reshufflesPerGame.write(out);
+        drawNCardsPerGame.write(out);
+        skipDepths.write(out);
+    }
+
+    /**
+     * reads totals written by write
+     * @param in where to read them from
+     * @return TournamentStats with the same totals
+     * @throws IOException if in cannot be read
+     */
+    public static TournamentStats read(DataInput in) throws IOException {
+        TournamentStats stats = new TournamentStats(in.readInt());
+        for (int i = 0; i < stats.winsBySeat.length; i++) {
+            stats.winsBySeat[i] = in.readLong();
+        }
+        stats.games = in.readLong();
+        stats.turns = in.readLong();
+        stats.cardsDrawn = in.readLong();
+        stats.reshuffles = in.readLong();
+        stats.longestGame = in.readInt();
+        stats.gameLengths.merge(Histogram.read(in));
+        stats.reshufflesPerGame.merge(Histogram.read(in));
+        stats.drawNCardsPerGame.merge(Histogram.read(in));
+        stats.skipDepths.merge(Histogram.read(in));
+        return stats;
+    }
+
+    /**
+     * copies the totals, not the game being watched
+     * @return TournamentStats with the same totals
+     */
+    public TournamentStats copy() {
+        return new TournamentStats(winsBySeat.length).merge(this);
+    }
+
+    /**
+     * getter for the number of games played
+     * @return long number of games added
+     */
+    public long getGames() {
+        return games;
+    }
+
+    /**
+     * getter for the wins of one seat
+     * @param seat index of the seat
+     * @return long number of games that seat won
+     */
+    public long getWins(int seat) {
+        return winsBySeat[seat];
+    }
+
+    /**
+     * getter for the total number of turns
+     * @return long turns over all games
+     */
+    public long getTurns() {
+        return turns;
+    }
+
+    /**
+     * getter for the total number of cards drawn
+     * @return long cards drawn over all games
+     */
+    public long getCardsDrawn() {
+        return cardsDrawn;
+    }
+
+    /**
+     * getter for the total number of reshuffles
+     * @return long reshuffles over all games
+     */
+    public long getReshuffles() {
+        return reshuffles;
+    }
+
+    /**
+     * getter for the longest game
+     * @return int most turns taken in one game
+     */
+    public int getLongestGame() {
+        return longestGame;
+    }
+
+    /**
+     * getter for the game length histogram
+     * @return Histogram of turns per game
+     */
+    public Histogram getGameLengths() {
+        return gameLengths;
+    }
+
+    /**
+     * getter for the reshuffle histogram
+     * @return Histogram of reshuffles per game
+     */
+    public Histogram getReshufflesPerGame() {
+        return reshufflesPerGame;
+    }
+
+    /**
+     * getter for the DrawN histogram
+     * @return Histogram of cards drawn because of a DrawN per game
+     */
+    public Histogram getDrawNCardsPerGame() {
+        return drawNCardsPerGame;
+    }
+
+    /**
+     * getter for the skip depth histogram
+     * @return Histogram of the skips stacked on the target each time a Skip was played
+     */
+    public Histogram getSkipDepths() {
+        return skipDepths;
+    }
+
+    /**
+     * One line summary, for printing while games are still being played
+     * @return String of the games played and each seat's win rate
+     */
+    public String progress() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Games: ").append(games).append(", win rate by seat:");
+        double perGame = Math.max(games, 1);
+        for (long wins : winsBySeat) {
+            sb.append(String.format(" %.3f", wins / perGame));
+        }
+        sb.append(", turns p50 ").append(gameLengths.getPercentile(0.5));
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Games: ").append(games).append("\n");
+        for (int i = 0; i < winsBySeat.length; i++) {
+            sb.append("Player ").append(i).append(" won ").append(winsBySeat[i]).append("\n");
+        }
+        double perGame = Math.max(games, 1);
+        sb.append("Average turns: ").append(turns / perGame).append("\n");
+        sb.append("Average cards drawn: ").append(cardsDrawn / perGame).append("\n");
+        sb.append("Average reshuffles: ").append(reshuffles / perGame).append("\n");
+        sb.append("Longest game: ").append(longestGame).append(" turns\n");
+        sb.append("Turns per game: ").append(gameLengths).append("\n");
+        sb.append("Reshuffles per game: ").append(reshufflesPerGame).append("\n");
+        sb.append("DrawN cards per game: ").append(drawNCardsPerGame).append("\n");
+        sb.append("Skip depth: ").append(skipDepths);
+        return sb.toString();
+    }
+}
@@ -7,7 +7,9 @@ import java.util.List;
  * - game direction (forward or backward)
  * - who the current player is
  * - who the next player is based on direction
- * - the list of skips played on each player
+ * - the number of skips played on each player, in an int array
+ * - a bitset of the players with no skips on them, so the next player is found a word
+ *   of 64 seats at a time instead of walking seat by seat
  */
 public final class UnusIterator<T> {
     private final List<T> ls;
@@ -16,7 +18,10 @@ public final class UnusIterator<T> {
 
     private Direction dir = Direction.FORWARD;
 
-    private final List<Integer> skips;
+    private final int[] skips;
+    // bit i is set when skips[i] == 0
+    private final long[] unskipped;
+    private int numUnskipped;
 
     /**
      * Enum for the direction of play
@@ -62,7 +67,12 @@ public final class UnusIterator<T> {
         this.ls = ls;
         this.curIndex = 0;
         this.len = ls.size();
-        this.skips = Utils.repeat(this.len, 0);
+        this.skips = new int[len];
+        this.unskipped = new long[(len + 63) >>> 6];
+        for (int i = 0; i < len; i++) {
+            unskipped[i >>> 6] |= 1L << i;
+        }
+        this.numUnskipped = len;
     }
 
     /**
@@ -75,39 +85,171 @@ public final class UnusIterator<T> {
      * Find the next valid player index.
      * This is fairly complicated due to being able
      * to skip any player and being able to stack skips
-     * on a given player. This function does the following:
-     * - Loops until a valid next player is found
+     * on a given player. Walking from the player after the current one in the direction of play,
+     * every player with skips on them is passed over and uses up one skip, and the first player
+     * with none is next. This function does the following without walking seat by seat:
+     * - If some player has no skips, the unskipped bitset is searched from the player after
+     *   the current one, wrapping around the table, for the first one
+     *   - If decrement is true every player passed over on the way has one skip taken off
+     * - If every player has skips then the walk would go around the table until the smallest
+     *   number of skips m is used up, so the next player is the first one with m skips
+     *   - If decrement is true every player has m skips taken off,
+     *     and one more if they come before the next player
      * - Does not modify the curIndex
-     * - Instead manipulate its own internal index
-     * - This internal index is initially set to the curIndex + the directional adder
-     * - It is then checked if it has gone out of bounds
-     *   - If it has gone negative then it should be set to the max value
-     *   - If it is above the max value then it should be set to 0
-     * - This index is then looked up in the skips list
-     *   - If this value is anything but 0 then that means this index must be skipped.
-     *   - If decrement is true then the value in the skips list for this index should be decremented by 1
-     *   - If it is 0 then you have found the next index and the loop should be exited.
-     *   - The internal index should then be returned
+     * @param decrement whether skips that are passed over are used up
      * @return Index of next player in the order respecting skips and reverses
      */
     public int findNextIndex(boolean decrement) {
-        boolean foundNext = false;
-        int nextPlayer = curIndex + dir.getAdder();
-        do{
-            // bounds checking
-            if (nextPlayer < 0){ nextPlayer = ls.size() - 1; }
-            if (nextPlayer > ls.size() - 1){ nextPlayer = 0; }
-
-            if (skips.get(nextPlayer) != 0){
-                if (decrement) { skips.set(nextPlayer, skips.get(nextPlayer) - 1); }
-                nextPlayer += dir.getAdder();
-            } else {
-                foundNext = true;
+        if (numUnskipped == 0) {
+            return findNextWhenAllSkipped(decrement);
+        }
+        int adder = dir.getAdder();
+        int nextPlayer = adder > 0 ? nextUnskipped(curIndex + 1) : previousUnskipped(curIndex - 1);
+        if (decrement) {
+            for (int i = wrap(curIndex + adder); i != nextPlayer; i = wrap(i + adder)) {
+                removeSkips(i, 1);
             }
-        } while (!foundNext);
+        }
         return nextPlayer;
     }
 
+    /**
+     * findNextIndex for when every player has at least one skip on them
+     * @param decrement whether skips that are passed over are used up
+     * @return Index of next player
+     */
+    private int findNextWhenAllSkipped(boolean decrement) {
+        int adder = dir.getAdder();
+        int fewest = Integer.MAX_VALUE;
+        int nextPlayer = curIndex;
+        for (int n = 0, i = wrap(curIndex + adder); n < len; n++, i = wrap(i + adder)) {
+            if (skips[i] < fewest) {
+                fewest = skips[i];
+                nextPlayer = i;
+            }
+        }
+        if (decrement) {
+            boolean before = true;
+            for (int n = 0, i = wrap(curIndex + adder); n < len; n++, i = wrap(i + adder)) {
+                if (i == nextPlayer) { before = false; }
+                removeSkips(i, before ? fewest + 1 : fewest);
+            }
+        }
+        return nextPlayer;
+    }
+
+    /**
+     * first player with no skips at or after from, wrapping around to 0
+     * @param from index to start looking at
+     * @return int index of the player, there must be one
+     */
+    private int nextUnskipped(int from) {
+        int found = nextSetBit(from >= len ? 0 : from);
+        return found >= 0 ? found : nextSetBit(0);
+    }
+
+    /**
+     * first player with no skips at or before from, wrapping around to the last player
+     * @param from index to start looking at
+     * @return int index of the player, there must be one
+     */
+    private int previousUnskipped(int from) {
+        int found = previousSetBit(from < 0 ? len - 1 : from);
+        return found >= 0 ? found : previousSetBit(len - 1);
+    }
+
+    private int nextSetBit(int from) {
+        int word = from >>> 6;
+        long bits = unskipped[word] & (-1L << from);
+        while (bits == 0) {
+            if (++word == unskipped.length) { return -1; }
+            bits = unskipped[word];
+        }
+        return (word << 6) + Long.numberOfTrailingZeros(bits);
+    }
+
+    private int previousSetBit(int from) {
+        int word = from >>> 6;
+        long bits = unskipped[word] & (-1L >>> (63 - (from & 63)));
+        while (bits == 0) {
+            if (--word < 0) { return -1; }
+            bits = unskipped[word];
+        }
+        return (word << 6) + 63 - Long.numberOfLeadingZeros(bits);
+    }
+
+    /**
+     * wraps an index that has gone one past either end of the table
+     * @param index index to wrap
+     * @return int index in bounds
+     */
+    private int wrap(int index) {
+        if (index < 0) { return len - 1; }
+        if (index >= len) { return 0; }
+        return index;
+    }
+
+    /**
+     * sets the number of skips on a player, keeping the unskipped bitset up to date
+     * @param index index of the player
+     * @param count skips on that player
+     */
+    private void setSkips(int index, int count) {
+        boolean wasUnskipped = skips[index] == 0;
+        skips[index] = count;
+        if (wasUnskipped && count != 0) {
+            unskipped[index >>> 6] &= ~(1L << index);
+            numUnskipped--;
+        } else if (!wasUnskipped && count == 0) {
+            unskipped[index >>> 6] |= 1L << index;
+            numUnskipped++;
+        }
+    }
+
+    private void removeSkips(int index, int count) {
+        setSkips(index, skips[index] - count);
+    }
+
+    /**
+     * getter for a player by index
+     * @param index index of the player
+     * @return Player at that index
+     */
+    public T get(int index) {
+        return ls.get(index);
+    }
+
+    /**
+     * getter for the number of skips on a player
+     * @param index index of the player
+     * @return int skips stacked on that player
+     */
+    public int getSkips(int index) {
+        return skips[index];
+    }
+
+    /**
+     * copies the number of skips on every player
+     * @param into array with room for every player
+     */
+    public void copySkips(int[] into) {
+        System.arraycopy(skips, 0, into, 0, len);
+    }
+
+    /**
+     * puts the iterator back to a saved state
+     * @param curIndex index of the current player
+     * @param dir +1 if moving forward, -1 if moving backwards
+     * @param savedSkips number of skips on every player
+     */
+    public void restore(int curIndex, int dir, int[] savedSkips) {
+        this.curIndex = curIndex;
+        this.dir = dir == Direction.FORWARD.getAdder() ? Direction.FORWARD : Direction.BACKWARD;
+        for (int i = 0; i < len; i++) {
+            setSkips(i, savedSkips[i]);
+        }
+    }
+
     /**
      * getter for the current player
      * @return Player at the current index
@@ -149,19 +291,12 @@ public final class UnusIterator<T> {
     }
 
     /**
-     * Increments the nth element of skips by 1
+     * Increments the nth element of skips by 1.
+     * An index off either end of the table wraps around it, so -1 is the last player.
      * @param n Index in skips list to increment
      */
     public void skip(int n) {
-        // bounds checking on skips List
-        if (n < 0){
-            n = skips.size();
-        }
-        if (n >= skips.size()){
-            n = 0;
-        }
-        int currentSkips = skips.get(n);
-        skips.set(n, currentSkips + 1);
-
+        n = Math.floorMod(n, len);
+        setSkips(n, skips[n] + 1);
     }
 }
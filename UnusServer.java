@@ -0,0 +1,535 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Corey Walker
+ * Hosts many tables of Unus in one JVM.
+ * - players connect over TCP and are seated in the order they arrive
+ * - as soon as a table is full its Game starts
+ * - every table's text is sent to every seat at that table a turn at a time
+ * - when the game ends everyone at the table is disconnected
+ * The protocol is lines of text:
+ * - game text for the table is sent as it is, a turn at a time
+ * - questions are sent as "ASK CARD $indexes" where indexes are the playable cards separated by spaces,
+ *   or "ASK SKIP $players $self" where any index below players but self would be accepted
+ * - the answer is a single line with the index
+ * Answers that are not numbers are treated as invalid and the question is asked again.
+ * Every connection and every table is handled by one thread with a Selector.
+ * A table never waits for an answer, it asks its question and the game only moves on
+ * when the answer arrives, playing turns with Player::startTurn, Moves, and Game::endTurn.
+ * Turns are timed the same way Player::takeTurn times them, the time waiting for answers is the decision time.
+ * So a seat waiting for its turn costs a socket and a few buffers, not a thread.
+ * Text a seat has not read yet is kept for it, up to MAX_PENDING bytes, after that its table fails.
+ */
+public final class UnusServer implements AutoCloseable {
+    private static final int MAX_PENDING = 1 << 20;
+    private static final int MAX_LINE = 64;
+    private static final long MAX_ACCEPT_BACKOFF_MILLIS = 1000;
+    // seats at a server table are only ever asked through the selector
+    private static final DecisionProvider ASKED_BY_SERVER = new DecisionProvider() {
+        @Override
+        public int chooseCard(Game game, Hand hand) {
+            throw new IllegalStateException("server seats are asked through the selector");
+        }
+
+        @Override
+        public int chooseSkip(Game game) {
+            throw new IllegalStateException("server seats are asked through the selector");
+        }
+    };
+
+    private final ServerSocketChannel serverChannel;
+    private final Selector selector;
+    private final int playersPerTable;
+    private final SplittableRandom seeds;
+    private final AtomicLong tablesStarted = new AtomicLong();
+    private final AtomicLong tablesFinished = new AtomicLong();
+    private final AtomicLong tablesFailed = new AtomicLong();
+    private final AtomicLong tableErrors = new AtomicLong();
+    private volatile String lastError;
+    private List<Seat> waiting = new ArrayList<>();
+    private long acceptBackoffMillis;
+    private long acceptAgainAt;
+
+    /**
+     * constructor for a server, starts listening straight away
+     * @param port port to listen on, 0 for any free port
+     * @param playersPerTable number of players at each table
+     * @param seed seed every table's seed is drawn from
+     * @throws IOException if the port cannot be opened
+     */
+    public UnusServer(int port, int playersPerTable, long seed) throws IOException {
+        this.serverChannel = ServerSocketChannel.open();
+        this.serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 4096);
+        this.serverChannel.configureBlocking(false);
+        this.selector = Selector.open();
+        this.serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        this.playersPerTable = playersPerTable;
+        this.seeds = new SplittableRandom(seed);
+    }
+
+    /**
+     * getter for the port the server is listening on
+     * @return int port number
+     */
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+
+    /**
+     * This function does the following:
+     * - Accepts players until the server is closed, starting a table whenever enough have arrived
+     * - Reads answers and hands them to the table asking, which plays on until its next question
+     * - Writes whatever text a seat could not take straight away once it can
+     * - If accepting fails, stops accepting for a while, twice as long every time it fails in a row
+     * When the server is closed every connection is closed and it returns.
+     * @throws IOException if the selector fails
+     */
+    public void serve() throws IOException {
+        SelectionKey acceptKey = serverChannel.keyFor(selector);
+        try {
+            while (serverChannel.isOpen()) {
+                long timeout = 0;
+                if (acceptKey.interestOps() == 0) {
+                    timeout = Math.max(1, acceptAgainAt - System.currentTimeMillis());
+                }
+                selector.select(timeout);
+                if (acceptKey.isValid() && acceptKey.interestOps() == 0
+                        && System.currentTimeMillis() >= acceptAgainAt) {
+                    acceptKey.interestOps(SelectionKey.OP_ACCEPT);
+                }
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) { continue; }
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else {
+                        Seat seat = (Seat) key.attachment();
+                        if (key.isWritable() && !seat.write() && seat.table != null) {
+                            endTable(seat.table, true);
+                        }
+                        if (key.isValid() && key.isReadable()) {
+                            read(seat);
+                        }
+                    }
+                }
+            }
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                key.channel().close();
+            }
+            selector.close();
+        }
+    }
+
+    /**
+     * accepts one player and seats them, a full table starts playing
+     */
+    private void accept() {
+        Seat seat;
+        try {
+            SocketChannel channel = serverChannel.accept();
+            if (channel == null) { return; }
+            acceptBackoffMillis = 0;
+            try {
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                seat = new Seat(channel);
+                seat.key = channel.register(selector, SelectionKey.OP_READ, seat);
+            } catch (IOException e) {
+                channel.close();
+                return;
+            }
+        } catch (IOException e) {
+            if (!serverChannel.isOpen()) { return; }
+            acceptBackoffMillis = Math.min(Math.max(1, acceptBackoffMillis * 2), MAX_ACCEPT_BACKOFF_MILLIS);
+            acceptAgainAt = System.currentTimeMillis() + acceptBackoffMillis;
+            serverChannel.keyFor(selector).interestOps(0);
+            return;
+        }
+        waiting.add(seat);
+        if (waiting.size() == playersPerTable) {
+            Table table = new Table(waiting, seeds.nextLong());
+            waiting = new ArrayList<>();
+            tablesStarted.incrementAndGet();
+            play(table, -1, 0);
+        }
+    }
+
+    /**
+     * reads what a seat has sent, every full line is an answer
+     */
+    private void read(Seat seat) {
+        int read;
+        try {
+            read = seat.channel.read(seat.readBuffer);
+        } catch (IOException e) {
+            read = -1;
+        }
+        if (read < 0) {
+            if (seat.table == null) {
+                waiting.remove(seat);
+                seat.close();
+            } else {
+                endTable(seat.table, true);
+            }
+            return;
+        }
+        ByteBuffer buffer = seat.readBuffer;
+        buffer.flip();
+        while (buffer.hasRemaining() && seat.key.isValid()) {
+            char c = (char) buffer.get();
+            if (c != '\n') {
+                if (seat.line.length() < MAX_LINE) { seat.line.append(c); }
+                continue;
+            }
+            int answer;
+            try {
+                answer = Integer.parseInt(seat.line.toString().trim());
+            } catch (NumberFormatException e) {
+                answer = -1;
+            }
+            seat.line.setLength(0);
+            if (seat.table != null) {
+                play(seat.table, seat.index, answer);
+            }
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Gives a table an answer, or starts it when seat is -1, and ends the table if it is over.
+     * Whatever goes wrong the table is counted as finished or failed, and its seats are closed,
+     * a table failing never stops the server.
+     * A table that fails because of a bug rather than a player leaving is also counted as an error,
+     * and the last error is shown in status.
+     */
+    private void play(Table table, int seat, int answer) {
+        boolean over = false;
+        boolean failed = false;
+        try {
+            over = seat < 0 ? table.start() : table.answer(seat, answer);
+        } catch (UncheckedIOException e) {
+            // a player left or stopped reading
+            failed = true;
+        } catch (RuntimeException e) {
+            failed = true;
+            tableErrors.incrementAndGet();
+            lastError = "table with seed " + table.game.getSeed() + ": " + e;
+        } finally {
+            if (over || failed) {
+                endTable(table, failed);
+            }
+        }
+    }
+
+    private void endTable(Table table, boolean failed) {
+        if (table.ended) { return; }
+        table.ended = true;
+        (failed ? tablesFailed : tablesFinished).incrementAndGet();
+        for (Seat seat : table.seats) {
+            if (failed) {
+                seat.close();
+            } else {
+                seat.closeWhenWritten();
+            }
+        }
+    }
+
+    /**
+     * one line describing how many tables have been played, and the last error if a table hit one
+     * @return String status of the server
+     */
+    public String status() {
+        long started = tablesStarted.get();
+        long finished = tablesFinished.get();
+        long failed = tablesFailed.get();
+        String status = "tables started: " + started + ", playing: " + (started - finished - failed)
+                + ", finished: " + finished + ", failed: " + failed;
+        long errors = tableErrors.get();
+        return errors == 0 ? status : status + ", errors: " + errors + ", last error: " + lastError;
+    }
+
+    /**
+     * stops accepting players, serve closes every connection and returns
+     * @throws IOException if the server socket cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        serverChannel.close();
+        selector.wakeup();
+    }
+
+    /**
+     * One player's connection, with the text it has not taken yet and the line it is sending
+     */
+    private static final class Seat {
+        private final SocketChannel channel;
+        private final ByteBuffer readBuffer = ByteBuffer.allocate(256);
+        private final StringBuilder line = new StringBuilder();
+        private final ArrayDeque<ByteBuffer> pending = new ArrayDeque<>();
+        private int pendingBytes;
+        private boolean closeWhenWritten;
+        private SelectionKey key;
+        private Table table;
+        private int index;
+
+        Seat(SocketChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * sends text, whatever the socket cannot take now is kept and written when it can
+         * @throws UncheckedIOException if the connection is gone or too far behind
+         */
+        void send(CharSequence text) {
+            ByteBuffer bytes = StandardCharsets.UTF_8.encode(CharBuffer.wrap(text));
+            try {
+                if (pending.isEmpty()) {
+                    channel.write(bytes);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (!bytes.hasRemaining()) { return; }
+            pendingBytes += bytes.remaining();
+            if (pendingBytes > MAX_PENDING) {
+                throw new UncheckedIOException(new IOException("player is not reading"));
+            }
+            pending.add(bytes);
+            key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        }
+
+        /**
+         * writes kept text until the socket is full, closes the seat once everything is written if it should
+         * @return false if the connection is gone
+         */
+        boolean write() {
+            try {
+                while (!pending.isEmpty()) {
+                    ByteBuffer bytes = pending.peek();
+                    pendingBytes -= channel.write(bytes);
+                    if (bytes.hasRemaining()) { return true; }
+                    pending.poll();
+                }
+            } catch (IOException e) {
+                close();
+                return false;
+            }
+            if (closeWhenWritten) {
+                close();
+            } else {
+                key.interestOps(SelectionKey.OP_READ);
+            }
+            return true;
+        }
+
+        void closeWhenWritten() {
+            closeWhenWritten = true;
+            if (pending.isEmpty()) {
+                close();
+            }
+        }
+
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException ignored) {
+                // already gone
+            }
+        }
+    }
+
+    /**
+     * A table's Game and what it is waiting to be told
+     */
+    private static final class Table {
+        private final List<Seat> seats;
+        private final Game game;
+        private final TableOutput out;
+        private boolean askingSkip;
+        private int skipCard;
+        private long askedAt;
+        private boolean ended;
+
+        Table(List<Seat> seats, long seed) {
+            this.seats = seats;
+            for (int i = 0; i < seats.size(); i++) {
+                seats.get(i).table = this;
+                seats.get(i).index = i;
+            }
+            this.out = new TableOutput(seats);
+            this.game = new Game(Utils.repeat(seats.size(), ASKED_BY_SERVER), out, seed);
+        }
+
+        /**
+         * starts the game and plays until someone has to be asked something
+         * @return true if the game is over
+         */
+        boolean start() {
+            game.printWelcome();
+            return playUntilAsked();
+        }
+
+        /**
+         * Plays turns until a player has a card to play, then asks them which
+         * @return true if the game ended first
+         */
+        private boolean playUntilAsked() {
+            while (true) {
+                Player player = game.getPlayers().current();
+                player.beginTurnTiming();
+                if (player.startTurn()) { break; }
+                player.endTurnTiming();
+                if (game.endTurn()) { return true; }
+            }
+            askCard();
+            return false;
+        }
+
+        /**
+         * asks the current player which card to play with "ASK CARD" followed by the index of every playable card
+         */
+        private void askCard() {
+            askingSkip = false;
+            Hand hand = game.getPlayers().current().hand;
+            int[] playable = new int[hand.countPlayable(game.getTopCard())];
+            hand.playableIndexes(game.getTopCard(), playable);
+            StringBuilder question = new StringBuilder("ASK CARD");
+            for (int index : playable) {
+                question.append(' ').append(index);
+            }
+            ask(question);
+        }
+
+        /**
+         * asks the current player who to skip with "ASK SKIP" followed by the number of players
+         * and the index of the current one, so the question stays the same size however many players there are
+         */
+        private void askSkip() {
+            askingSkip = true;
+            ask(new StringBuilder("ASK SKIP ")
+                    .append(game.getNumPlayers()).append(' ').append(game.getPlayers().getCurIndex()));
+        }
+
+        private void ask(StringBuilder question) {
+            out.flush();
+            seats.get(game.getPlayers().getCurIndex()).send(question.append('\n'));
+            askedAt = System.nanoTime();
+        }
+
+        /**
+         * This function does the following:
+         * - Ignores answers from anyone but the player being asked
+         * - Plays the card they chose, the same way Player::takeTurn and Skip::doAction would,
+         *   with the same messages when the card or the player to skip is not valid,
+         *   asking again until the answer is valid
+         * - Ends the turn and plays on until the next question
+         * @param seat index of the player answering
+         * @param answer the index they sent, -1 if it was not a number
+         * @return true if the game is over
+         */
+        boolean answer(int seat, int answer) {
+            if (ended || seat != game.getPlayers().getCurIndex()) { return false; }
+            Player player = game.getPlayers().current();
+            player.recordDecision(System.nanoTime() - askedAt);
+            if (askingSkip) {
+                if (answer < 0 || answer >= game.getNumPlayers()
+                        || Moves.apply(game, Moves.move(skipCard, answer)) != Moves.OK) {
+                    out.println(answer + " is not valid.");
+                    askSkip();
+                    return false;
+                }
+            } else {
+                int status = answer < 0 || answer >= player.hand.numCardsRemaining()
+                        ? Moves.BAD_INDEX : Moves.check(game, Moves.move(answer, -1));
+                if (status == Moves.BAD_INDEX || status == Moves.NOT_PLAYABLE) {
+                    out.println(status == Moves.BAD_INDEX ? answer + " is not a valid index, please try again."
+                            : "Card " + answer + " cannot currently be played, please try again.");
+                    player.showHand();
+                    askCard();
+                    return false;
+                }
+                if (status == Moves.BAD_SKIP_TARGET) {
+                    skipCard = answer;
+                    askSkip();
+                    return false;
+                }
+                Moves.apply(game, Moves.move(answer, -1));
+            }
+            player.endTurnTiming();
+            return game.endTurn() || playUntilAsked();
+        }
+    }
+
+    /**
+     * GameOutput for a table that holds a turn's text and sends it to every seat when flushed
+     */
+    private static final class TableOutput implements GameOutput {
+        private final List<Seat> seats;
+        private final StringBuilder buffer = new StringBuilder();
+
+        TableOutput(List<Seat> seats) {
+            this.seats = seats;
+        }
+
+        @Override
+        public void println(Object line) {
+            GameOutput.appendLine(buffer, line);
+        }
+
+        @Override
+        public void flush() {
+            if (buffer.length() == 0) { return; }
+            for (Seat seat : seats) {
+                seat.send(buffer);
+            }
+            buffer.setLength(0);
+        }
+    }
+
+    /**
+     * Runs a server on loopback and prints its status every few seconds
+     * @param args port, players per table, and seed, defaults to port 7251, 3 players, and a random seed
+     * @throws IOException if the port cannot be opened
+     */
+    public static void main(String[] args) throws IOException {
+        Metrics.dumpOnExit();
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 7251;
+        int playersPerTable = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : new SplittableRandom().nextLong();
+        UnusServer server = new UnusServer(port, playersPerTable, seed);
+        Thread status = new Thread(() -> {
+            while (true) {
+                try {
+                    Thread.sleep(5000);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                System.out.println(server.status());
+            }
+        }, "unus-status");
+        status.setDaemon(true);
+        status.start();
+        System.out.println("Unus server listening on port " + server.getPort());
+        server.serve();
+    }
+}
@@ -8,7 +8,14 @@
 public class Wild extends Card {
 
     public Wild(Color cardColor) {
-        super(cardColor);
+        super(checkWild(cardColor), CardCode.WILD);
+    }
+
+    private static Color checkWild(Color cardColor) {
+        if (cardColor != Color.WILD) {
+            throw new IllegalArgumentException("wild cards must have color WILD");
+        }
+        return cardColor;
     }
 
     @Override
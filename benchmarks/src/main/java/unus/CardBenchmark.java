@@ -0,0 +1,73 @@
+package unus;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Corey Walker
+ * JMH benchmarks for Card.match, with one run for every Card subclass
+ * and one where the card and the top card both move through every face.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CardBenchmark {
+    @Param({"number", "skip", "reverse", "draw2", "wild", "wildDraw4", "none", "all"})
+    public String card;
+
+    private final Card[] faces = new Card[CardCode.NUM_FACES + 1];
+    private Card fixed;
+    private int top;
+    private int next;
+
+    /**
+     * makes a card of every face and picks the card that is matched
+     */
+    @Setup
+    public void setup() {
+        for (int face = 0; face < faces.length; face++) {
+            faces[face] = CardCode.toCard(face);
+        }
+        switch (card) {
+            case "number": fixed = faces[CardCode.number(Card.Color.RED, 5)]; break;
+            case "skip": fixed = faces[CardCode.skip(Card.Color.RED)]; break;
+            case "reverse": fixed = faces[CardCode.reverse(Card.Color.RED)]; break;
+            case "draw2": fixed = faces[CardCode.draw(Card.Color.RED, 2)]; break;
+            case "wild": fixed = faces[CardCode.WILD]; break;
+            case "wildDraw4": fixed = faces[CardCode.WILD_DRAW_4]; break;
+            case "none": fixed = faces[CardCode.NONE]; break;
+            default: fixed = null; break;
+        }
+    }
+
+    /**
+     * one op matches the card against the next face, when card is "all" the card also
+     * moves to the next face each time the top card has been through them all
+     * @return true if the card can be played on the top card
+     */
+    @Benchmark
+    public boolean match() {
+        if (top == CardCode.NUM_FACES) {
+            top = 0;
+            next = next == CardCode.NUM_FACES ? 0 : next + 1;
+        } else {
+            top++;
+        }
+        Card played = fixed != null ? fixed : faces[next];
+        return played.match(faces[top]);
+    }
+}
@@ -0,0 +1,88 @@
+package unus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Corey Walker
+ * JMH benchmarks for drawing from and shuffling a deck.
+ * A deck that runs out is filled again inside the benchmark, once every 108 draws,
+ * the same way a game refills its deck from the play area.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DeckBenchmark {
+    private List<Card> cards;
+    private Card[] cardArray;
+    private Deck deck;
+    private Deck lazyDeck;
+    private Deck shuffled;
+
+    /**
+     * builds a full deck of every kind
+     */
+    @Setup
+    public void setup() {
+        cards = new ArrayList<>();
+        for (byte face : CardCode.standardDeck()) {
+            cards.add(CardCode.toCard(face));
+        }
+        cardArray = cards.toArray(new Card[0]);
+        deck = new Deck(cards, new SplittableRandom(1), () -> {});
+        lazyDeck = new Deck(CardCode.standardDeck(), new SplittableRandom(1), () -> {}, true);
+        shuffled = new Deck(cards, new SplittableRandom(1), () -> {});
+    }
+
+    /**
+     * one op is one drawCard
+     * @return int face of the card drawn
+     * @throws Deck.EmptyDeckException never, the deck is filled before it runs out
+     */
+    @Benchmark
+    public int drawCard() throws Deck.EmptyDeckException {
+        if (deck.numCardsRemaining() == 0) {
+            deck.addCards(cards);
+        }
+        return deck.drawCard().getFace();
+    }
+
+    /**
+     * one op is one drawCard from a deck that shuffles as it draws
+     * @return int face of the card drawn
+     * @throws Deck.EmptyDeckException never, the deck is filled before it runs out
+     */
+    @Benchmark
+    public int drawCardLazy() throws Deck.EmptyDeckException {
+        if (lazyDeck.numCardsRemaining() == 0) {
+            lazyDeck.shuffleIn(cardArray, 0, cardArray.length);
+        }
+        return lazyDeck.drawCard().getFace();
+    }
+
+    /**
+     * one op is one shuffle of a full 108 card deck
+     * @return int number of cards in the deck
+     */
+    @Benchmark
+    public int shuffleDeck() {
+        shuffled.shuffleDeck();
+        return shuffled.numCardsRemaining();
+    }
+}
@@ -0,0 +1,140 @@
+package unus;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Corey Walker
+ * JMH benchmarks for whole headless games played by bots that need no input,
+ * plus the two things a search does between turns: listing the legal moves and
+ * going back to a snapshot.
+ * Every game is dealt with the next seed, so the games measured are all different.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameBenchmark {
+    /**
+     * Corey Walker
+     * A table of GreedyBots, from a small table up to one dealt from several decks.
+     */
+    @State(Scope.Thread)
+    public static class Table {
+        @Param({"3", "10", "100"})
+        public int seats;
+
+        private List<GreedyBot> bots;
+
+        /**
+         * seats the bots
+         */
+        @Setup
+        public void setup() {
+            bots = Utils.repeat(seats, new GreedyBot());
+        }
+    }
+
+    private final List<DecisionProvider> mixedBots =
+            List.of(new GreedyBot(), new ColorBot(), new SaveWildsBot(), new LeaderSkipBot());
+    private long seed;
+    private Game movesGame;
+    private GameSnapshot movesStart;
+    private int[] moves;
+    private int topFace;
+    private int playedTops;
+    private Game snapshotGame;
+    private GameSnapshot snapshotStart;
+
+    /**
+     * deals the games that moves and snapshots are taken from
+     * - a 3 player game where the current player holds 15 more cards
+     * - a freshly dealt 4 player game
+     */
+    @Setup
+    public void setup() {
+        movesGame = new Game(Utils.repeat(3, new GreedyBot()), GameOutput.NONE, 1);
+        Hand hand = movesGame.getPlayers().current().hand;
+        for (int i = 0; i < 15; i++) {
+            hand.addCard(CardCode.toCard((i * 7) % CardCode.NONE));
+        }
+        movesStart = movesGame.snapshot();
+        moves = new int[64];
+        snapshotGame = new Game(Utils.repeat(4, new GreedyBot()), GameOutput.NONE, 1);
+        snapshotStart = snapshotGame.snapshot();
+    }
+
+    /**
+     * one op is one whole game of GreedyBots, dealt from Game.decksFor decks
+     * @param table the table size
+     * @return int number of turns the game took
+     */
+    @Benchmark
+    public int greedyBots(Table table) {
+        Game game = new Game(table.bots, GameOutput.NONE, seed++);
+        game.start();
+        return game.getResult().getTurns();
+    }
+
+    /**
+     * one op is one whole 4 player game of a GreedyBot, a ColorBot, a SaveWildsBot and a LeaderSkipBot
+     * @return int number of turns the game took
+     */
+    @Benchmark
+    public int mixedBots() {
+        Game game = new Game(mixedBots, GameOutput.NONE, seed++);
+        game.start();
+        return game.getResult().getTurns();
+    }
+
+    /**
+     * one op is one whole 3 player FastGame
+     * @return int what FastGame.play returns
+     */
+    @Benchmark
+    public int fastGame() {
+        return new FastGame(3, seed++).play();
+    }
+
+    /**
+     * one op generates every legal move of the current player of a 3 player game after putting the next
+     * face on top, the play area is cut back to the snapshot every 1024 ops
+     * @return int number of legal moves
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public int generateMoves() {
+        movesGame.playCard(CardCode.toCard(topFace));
+        topFace = topFace + 1 == CardCode.NUM_FACES ? 0 : topFace + 1;
+        if ((++playedTops & 0x3ff) == 0) {
+            movesGame.restore(movesStart);
+        }
+        return Moves.generate(movesGame, moves);
+    }
+
+    /**
+     * one op takes a snapshot of a 4 player game and restores the one taken when it was dealt
+     * @return int current player of the snapshot taken
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public int snapshotRestore() {
+        GameSnapshot snapshot = snapshotGame.snapshot();
+        snapshotGame.restore(snapshotStart);
+        return snapshot.getCurIndex();
+    }
+}
@@ -0,0 +1,132 @@
+package unus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Corey Walker
+ * JMH benchmarks for a hand: checking it against the top card, finding its playable cards,
+ * playing from it and drawing it as text.
+ * The top card moves through every face from one op to the next, so no answer is the same twice in a row.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HandBenchmark {
+    private final Card[] faces = new Card[CardCode.NUM_FACES + 1];
+    private int top;
+    private Hand reds;
+    private Hand mixed;
+    private int[] indexes;
+    private Game game;
+    private Hand greens;
+    private Card green;
+    private int plays;
+    private Hand shown;
+
+    /**
+     * builds the hands
+     * - reds, 20 red number cards
+     * - mixed, 60 cards that cycle through every face
+     * - greens, 10 green 7s that are played onto a 3 player game
+     * - shown, 15 cards of a standard deck for toString
+     */
+    @Setup
+    public void setup() {
+        for (int face = 0; face < faces.length; face++) {
+            faces[face] = CardCode.toCard(face);
+        }
+        reds = new Hand(new ArrayList<>());
+        for (int i = 0; i < 20; i++) {
+            reds.addCard(CardCode.toCard(CardCode.number(Card.Color.RED, i % 10)));
+        }
+        mixed = new Hand(new ArrayList<>());
+        for (int i = 0; i < 60; i++) {
+            mixed.addCard(faces[(i * 7) % CardCode.NUM_FACES]);
+        }
+        indexes = new int[mixed.numCardsRemaining()];
+        game = new Game(Utils.repeat(3, new GreedyBot()), GameOutput.NONE, 1);
+        greens = new Hand(new ArrayList<>());
+        green = CardCode.toCard(CardCode.number(Card.Color.GREEN, 7));
+        for (int i = 0; i < 10; i++) {
+            greens.addCard(green);
+        }
+        List<Card> cards = new ArrayList<>();
+        for (byte face : CardCode.standardDeck()) {
+            cards.add(CardCode.toCard(face));
+        }
+        shown = new Hand(cards.subList(40, 55));
+    }
+
+    private Card nextTop() {
+        top = top == CardCode.NUM_FACES ? 0 : top + 1;
+        return faces[top];
+    }
+
+    /**
+     * one op is noMatches of a 20 card hand against the next face
+     * @return true if nothing in the hand can be played
+     */
+    @Benchmark
+    public boolean noMatches() {
+        return reds.noMatches(nextTop());
+    }
+
+    /**
+     * one op finds the first card of a 60 card hand that can be played on the next face
+     * @return int index of the card, -1 if there is none
+     */
+    @Benchmark
+    public int firstPlayable() {
+        return mixed.firstPlayable(nextTop());
+    }
+
+    /**
+     * one op lists every card of a 60 card hand that can be played on the next face
+     * @return int number of playable cards
+     */
+    @Benchmark
+    public int playableIndexes() {
+        return mixed.playableIndexes(nextTop(), indexes);
+    }
+
+    /**
+     * one op plays a number card from a 10 card hand and puts it back in the hand,
+     * the game is dealt again every 65536 ops so its play area does not keep growing
+     * @return int number of cards in the hand
+     * @throws Card.CannotPlayCardException never, a green 7 can always go on a green 7
+     */
+    @Benchmark
+    public int playCard() throws Card.CannotPlayCardException {
+        greens.playCard(game, plays % 10);
+        greens.addCard(green);
+        if ((++plays & 0xffff) == 0) {
+            game = new Game(Utils.repeat(3, new GreedyBot()), GameOutput.NONE, plays);
+        }
+        return greens.numCardsRemaining();
+    }
+
+    /**
+     * one op draws a 15 card hand as text
+     * @return String the hand
+     */
+    @Benchmark
+    public String handToString() {
+        return shown.toString();
+    }
+}
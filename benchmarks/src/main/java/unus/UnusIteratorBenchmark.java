@@ -0,0 +1,78 @@
+package unus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Corey Walker
+ * JMH benchmarks for moving to the next player when skips are stacked on the seats ahead.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UnusIteratorBenchmark {
+    private UnusIterator<Integer> smallTable;
+    private UnusIterator<Integer> bigTable;
+    private long turns;
+
+    /**
+     * seats a 10 player table and a 500 player table
+     */
+    @Setup
+    public void setup() {
+        List<Integer> seats = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            seats.add(i);
+        }
+        smallTable = new UnusIterator<>(seats.subList(0, 10));
+        bigTable = new UnusIterator<>(seats);
+    }
+
+    /**
+     * one op stacks three skips on the seats ahead of a 10 seat table and moves to the next player,
+     * reversing every seventh op
+     * @return int index of the new current player
+     */
+    @Benchmark
+    public int nextStackedSkips() {
+        int cur = smallTable.getCurIndex();
+        smallTable.skip((cur + 1) % 10);
+        smallTable.skip((cur + 1) % 10);
+        smallTable.skip((cur + 2) % 10);
+        if (turns++ % 7 == 0) {
+            smallTable.reverse();
+        }
+        smallTable.next();
+        return smallTable.getCurIndex();
+    }
+
+    /**
+     * one op stacks skips on the next 40 seats of a 500 seat table and moves to the next player,
+     * so every next passes over a long run of skipped seats
+     * @return int index of the new current player plus the one after
+     */
+    @Benchmark
+    public int next500Seats() {
+        int cur = bigTable.getCurIndex();
+        for (int k = 1; k <= 40; k++) {
+            bigTable.skip(cur + k);
+        }
+        bigTable.next();
+        return bigTable.getCurIndex() + bigTable.findNextIndex(false);
+    }
+}